@@ -2,16 +2,26 @@ package net.craftmaster08.cm08statscore;
 
 import com.google.gson.JsonObject;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
+import net.craftmaster08.cm08statscore.cache.UnresolvedUsernameCache;
 import net.craftmaster08.cm08statscore.config.ConfigManager;
+import net.craftmaster08.cm08statscore.config.HourTier;
+import net.craftmaster08.cm08statscore.config.HourTierTable;
+import net.craftmaster08.cm08statscore.playtime.PlaytimeSampler;
+import net.craftmaster08.statsengine.cache.CircuitBreaker;
+import net.craftmaster08.statsengine.cache.MojangProfileResolver;
+import net.craftmaster08.statsengine.playtime.StatsDirectoryScanner;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.server.MinecraftServer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -64,7 +74,93 @@ public class StatsConfigCommand {
                 .then(Commands.literal("dailyresettime")
                         .executes(StatsConfigCommand::dailyResetTimeShow)
                         .then(Commands.argument("time", StringArgumentType.greedyString())
-                                .executes(context -> dailyResetTimeSet(context, StringArgumentType.getString(context, "time")))));
+                                .executes(context -> dailyResetTimeSet(context, StringArgumentType.getString(context, "time")))))
+                .then(Commands.literal("async")
+                        .executes(StatsConfigCommand::asyncShow)
+                        .then(Commands.argument("enabled", BoolArgumentType.bool())
+                                .executes(context -> asyncSet(context, BoolArgumentType.getBool(context, "enabled"))))
+                        .then(Commands.literal("timeout")
+                                .then(Commands.argument("seconds", IntegerArgumentType.integer(1, 600))
+                                        .executes(context -> asyncTimeoutSet(context, IntegerArgumentType.getInteger(context, "seconds"))))))
+                .then(Commands.literal("scan")
+                        .executes(StatsConfigCommand::scanShow)
+                        .then(Commands.literal("parallelism")
+                                .then(Commands.argument("threads", IntegerArgumentType.integer(0, 64))
+                                        .executes(context -> scanParallelismSet(context, IntegerArgumentType.getInteger(context, "threads"))))))
+                .then(Commands.literal("sampler")
+                        .executes(StatsConfigCommand::samplerShow)
+                        .then(Commands.literal("interval")
+                                .then(Commands.argument("ticks", IntegerArgumentType.integer(20, 6000))
+                                        .executes(context -> samplerIntervalSet(context, IntegerArgumentType.getInteger(context, "ticks")))))
+                        .then(Commands.literal("slices")
+                                .then(Commands.argument("slices", IntegerArgumentType.integer(1, 100))
+                                        .executes(context -> samplerSlicesSet(context, IntegerArgumentType.getInteger(context, "slices"))))))
+                .then(Commands.literal("pagesize")
+                        .executes(StatsConfigCommand::pageSizeShow)
+                        .then(Commands.argument("rows", IntegerArgumentType.integer(1, 100))
+                                .executes(context -> pageSizeSet(context, IntegerArgumentType.getInteger(context, "rows")))))
+                .then(Commands.literal("output")
+                        .executes(StatsConfigCommand::outputModeShow)
+                        .then(Commands.argument("mode", StringArgumentType.word())
+                                .suggests((context, builder) -> SharedSuggestionProvider.suggest(
+                                        Arrays.stream(ConfigManager.LeaderboardOutputMode.values()).map(ConfigManager.LeaderboardOutputMode::getName),
+                                        builder))
+                                .executes(context -> outputModeSet(context, StringArgumentType.getString(context, "mode")))))
+                .then(Commands.literal("tiers")
+                        .executes(StatsConfigCommand::tiersList)
+                        .then(Commands.literal("set")
+                                .then(Commands.argument("min_hours", IntegerArgumentType.integer(0, HourTierTable.MAX_HOURS))
+                                        .then(Commands.argument("h_color", StringArgumentType.word())
+                                                .suggests((context, builder) -> SharedSuggestionProvider.suggest(MINECRAFT_COLORS, builder))
+                                                .then(Commands.argument("hours_colors", StringArgumentType.greedyString())
+                                                        .executes(context -> tiersSet(context,
+                                                                IntegerArgumentType.getInteger(context, "min_hours"),
+                                                                StringArgumentType.getString(context, "h_color"),
+                                                                StringArgumentType.getString(context, "hours_colors")))))))
+                        .then(Commands.literal("symbol")
+                                .then(Commands.argument("min_hours", IntegerArgumentType.integer(0, HourTierTable.MAX_HOURS))
+                                        .suggests(tierStarts())
+                                        .then(Commands.literal("clear")
+                                                .executes(context -> tiersSymbolSet(context,
+                                                        IntegerArgumentType.getInteger(context, "min_hours"), null, null)))
+                                        .then(Commands.argument("color", StringArgumentType.word())
+                                                .suggests((context, builder) -> SharedSuggestionProvider.suggest(MINECRAFT_COLORS, builder))
+                                                .then(Commands.argument("symbol", StringArgumentType.greedyString())
+                                                        .executes(context -> tiersSymbolSet(context,
+                                                                IntegerArgumentType.getInteger(context, "min_hours"),
+                                                                StringArgumentType.getString(context, "color"),
+                                                                StringArgumentType.getString(context, "symbol")))))))
+                        .then(Commands.literal("remove")
+                                .then(Commands.argument("min_hours", IntegerArgumentType.integer(0, HourTierTable.MAX_HOURS))
+                                        .suggests(tierStarts())
+                                        .executes(context -> tiersRemove(context, IntegerArgumentType.getInteger(context, "min_hours")))))
+                        .then(Commands.literal("reset")
+                                .executes(StatsConfigCommand::tiersReset)))
+                .then(Commands.literal("mojang")
+                        .executes(StatsConfigCommand::mojangShow)
+                        .then(Commands.literal("endpoint")
+                                .then(Commands.argument("url", StringArgumentType.greedyString())
+                                        .executes(context -> mojangEndpointSet(context, StringArgumentType.getString(context, "url")))))
+                        .then(Commands.literal("concurrency")
+                                .then(Commands.argument("requests", IntegerArgumentType.integer(1, 32))
+                                        .executes(context -> mojangConcurrencySet(context, IntegerArgumentType.getInteger(context, "requests")))))
+                        .then(Commands.literal("interval")
+                                .then(Commands.argument("milliseconds", IntegerArgumentType.integer(0, 60000))
+                                        .executes(context -> mojangIntervalSet(context, IntegerArgumentType.getInteger(context, "milliseconds")))))
+                        .then(Commands.literal("timeout")
+                                .then(Commands.argument("connect_ms", IntegerArgumentType.integer(100, 60000))
+                                        .then(Commands.argument("request_ms", IntegerArgumentType.integer(100, 120000))
+                                                .executes(context -> mojangTimeoutSet(context,
+                                                        IntegerArgumentType.getInteger(context, "connect_ms"),
+                                                        IntegerArgumentType.getInteger(context, "request_ms"))))))
+                        .then(Commands.literal("breaker")
+                                .then(Commands.literal("reset")
+                                        .executes(StatsConfigCommand::mojangBreakerReset))
+                                .then(Commands.argument("failures", IntegerArgumentType.integer(1, 100))
+                                        .then(Commands.argument("cooldown_seconds", IntegerArgumentType.integer(0, 86400))
+                                                .executes(context -> mojangBreakerSet(context,
+                                                        IntegerArgumentType.getInteger(context, "failures"),
+                                                        IntegerArgumentType.getInteger(context, "cooldown_seconds")))))));
 
         try {
             dispatcher.register(command);
@@ -104,6 +200,21 @@ public class StatsConfigCommand {
         };
     }
 
+    /**
+     * Suggestion provider for the start hours of the configured tiers.
+     */
+    private static SuggestionProvider<CommandSourceStack> tierStarts() {
+        return (context, builder) -> {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config != null) {
+                return SharedSuggestionProvider.suggest(
+                        config.hourTiers.getTiers().stream().map(tier -> String.valueOf(tier.minHours())),
+                        builder);
+            }
+            return builder.buildFuture();
+        };
+    }
+
     /**
      * Reloads the StatsCore configuration file.
      */
@@ -360,6 +471,708 @@ public class StatsConfigCommand {
         }
     }
 
+    /**
+     * Shows the asynchronous leaderboard settings.
+     */
+    private static int asyncShow(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            source.sendSystemMessage(Component.literal("Async leaderboard: " + (config.asyncLeaderboard ? "enabled" : "disabled")
+                            + " (timeout " + config.asyncTimeoutSeconds + "s)")
+                    .withStyle(ChatFormatting.WHITE));
+            LOGGER.info("{} viewed async leaderboard settings", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to show async leaderboard settings: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to show async leaderboard settings", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Enables or disables asynchronous leaderboard computation and saves the config.
+     */
+    private static int asyncSet(CommandContext<CommandSourceStack> context, boolean enabled) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.asyncLeaderboard = enabled;
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal((enabled ? "Enabled" : "Disabled") + " async leaderboard")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set async leaderboard to {}", source.getTextName(), enabled);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set async leaderboard: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set async leaderboard to {}", enabled, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the asynchronous leaderboard timeout and saves the config.
+     */
+    private static int asyncTimeoutSet(CommandContext<CommandSourceStack> context, int seconds) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.asyncTimeoutSeconds = seconds;
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set async leaderboard timeout to " + seconds + "s")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set async leaderboard timeout to {}s", source.getTextName(), seconds);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set async leaderboard timeout: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set async leaderboard timeout to {}", seconds, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Shows the stats scan parallelism and the throughput of the last scan.
+     */
+    private static int scanShow(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            String parallelism = config.scanParallelism > 0 ? String.valueOf(config.scanParallelism) : "auto";
+            source.sendSystemMessage(Component.literal("Scan parallelism: " + parallelism)
+                    .withStyle(ChatFormatting.WHITE));
+            StatsDirectoryScanner.ScanResult lastScan = StatsDirectoryScanner.getLastScan();
+            if (lastScan != null) {
+                source.sendSystemMessage(Component.literal(String.format("Last scan: %d files (%d parsed) in %d ms with %d threads, %.0f files/s",
+                                lastScan.filesScanned(), lastScan.filesParsed(), lastScan.elapsedNanos() / 1_000_000,
+                                lastScan.parallelism(), lastScan.filesPerSecond()))
+                        .withStyle(ChatFormatting.WHITE));
+                if (!lastScan.complete()) {
+                    source.sendSystemMessage(Component.literal("The last scan could not list the whole stats folder; see the server log")
+                            .withStyle(ChatFormatting.YELLOW));
+                }
+            }
+            LOGGER.info("{} viewed scan settings", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to show scan settings: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to show scan settings", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the stats scan parallelism and saves the config.
+     */
+    private static int scanParallelismSet(CommandContext<CommandSourceStack> context, int threads) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.scanParallelism = threads;
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set scan parallelism to " + (threads > 0 ? String.valueOf(threads) : "auto"))
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set scan parallelism to {}", source.getTextName(), threads);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set scan parallelism: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set scan parallelism to {}", threads, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Shows the playtime sampler settings and the cost of the last interval.
+     */
+    private static int samplerShow(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            source.sendSystemMessage(Component.literal("Playtime sampler: every " + config.sampleIntervalTicks
+                            + " ticks in " + config.sampleSlices + " slices")
+                    .withStyle(ChatFormatting.WHITE));
+            PlaytimeSampler sampler = StatsCore.getSampler();
+            PlaytimeSampler.IntervalCost lastInterval = sampler != null ? sampler.getLastInterval() : null;
+            if (lastInterval != null) {
+                source.sendSystemMessage(Component.literal(String.format("Last interval: %d players in %.2f ms over %d ticks, slowest tick %.2f ms",
+                                lastInterval.players(), lastInterval.elapsedNanos() / 1_000_000.0, lastInterval.slices(),
+                                lastInterval.slowestSliceNanos() / 1_000_000.0))
+                        .withStyle(ChatFormatting.WHITE));
+            }
+            LOGGER.info("{} viewed sampler settings", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to show sampler settings: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to show sampler settings", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the number of ticks between two samples of a player and saves the config.
+     */
+    private static int samplerIntervalSet(CommandContext<CommandSourceStack> context, int ticks) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.sampleIntervalTicks = ticks;
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set sampler interval to " + ticks + " ticks")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set sampler interval to {} ticks", source.getTextName(), ticks);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set sampler interval: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set sampler interval to {}", ticks, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the number of ticks each sampler interval is spread over and saves the config.
+     */
+    private static int samplerSlicesSet(CommandContext<CommandSourceStack> context, int slices) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.sampleSlices = slices;
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set sampler slices to " + slices)
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set sampler slices to {}", source.getTextName(), slices);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set sampler slices: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set sampler slices to {}", slices, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Shows the number of players per /playtime page.
+     */
+    private static int pageSizeShow(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            source.sendSystemMessage(Component.literal("Leaderboard page size: " + config.leaderboardPageSize + " players")
+                    .withStyle(ChatFormatting.WHITE));
+            LOGGER.info("{} viewed leaderboard page size", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to show leaderboard page size: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to show leaderboard page size", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the number of players per /playtime page and saves the config.
+     */
+    private static int pageSizeSet(CommandContext<CommandSourceStack> context, int rows) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.leaderboardPageSize = rows;
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set leaderboard page size to " + rows + " players")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set leaderboard page size to {}", source.getTextName(), rows);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set leaderboard page size: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set leaderboard page size to {}", rows, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Shows how the leaderboard is sent to chat.
+     */
+    private static int outputModeShow(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            source.sendSystemMessage(Component.literal("Leaderboard output mode: " + config.leaderboardOutputMode.getName())
+                    .withStyle(ChatFormatting.WHITE));
+            LOGGER.info("{} viewed leaderboard output mode", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to show leaderboard output mode: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to show leaderboard output mode", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets how the leaderboard is sent to chat and saves the config.
+     */
+    private static int outputModeSet(CommandContext<CommandSourceStack> context, String mode) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            ConfigManager.LeaderboardOutputMode outputMode;
+            try {
+                outputMode = ConfigManager.LeaderboardOutputMode.fromName(mode);
+            } catch (IllegalArgumentException e) {
+                source.sendSystemMessage(Component.literal("Invalid output mode: " + mode + " (use lines, single or chunked)")
+                        .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+            config.leaderboardOutputMode = outputMode;
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set leaderboard output mode to " + outputMode.getName())
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set leaderboard output mode to {}", source.getTextName(), outputMode.getName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set leaderboard output mode: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set leaderboard output mode to {}", mode, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Lists the hour tiers used to color playtime on the leaderboard.
+     */
+    private static int tiersList(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            List<HourTier> tiers = config.hourTiers.getTiers();
+            source.sendSystemMessage(Component.literal("Hour tiers (" + tiers.size() + "):")
+                    .withStyle(ChatFormatting.WHITE));
+            for (HourTier tier : tiers) {
+                source.sendSystemMessage(formatTier(tier));
+            }
+            LOGGER.info("{} viewed hour tiers", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to list hour tiers: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to list hour tiers", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Adds or replaces the tier starting at an hour, keeping its symbol, and saves the config.
+     */
+    private static int tiersSet(CommandContext<CommandSourceStack> context, int minHours, String hColorName, String hoursColorNames) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            HourTier tier;
+            try {
+                List<ChatFormatting> hoursColors = new ArrayList<>();
+                for (String colorName : hoursColorNames.trim().split("[\\s,]+")) {
+                    hoursColors.add(HourTier.parseColor(colorName));
+                }
+                HourTier existing = findTier(config, minHours);
+                tier = new HourTier(minHours, hoursColors, HourTier.parseColor(hColorName),
+                        existing != null ? existing.symbol() : null, existing != null ? existing.symbolColor() : null);
+            } catch (IllegalArgumentException e) {
+                source.sendSystemMessage(Component.literal(e.getMessage())
+                        .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+            config.hourTiers = config.hourTiers.with(tier);
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set hour tier: ").withStyle(ChatFormatting.GREEN)
+                    .append(formatTier(tier)));
+            LOGGER.info("{} set hour tier at {}h", source.getTextName(), minHours);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set hour tier: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set hour tier at {}h", minHours, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets or clears the symbol of an existing tier and saves the config.
+     */
+    private static int tiersSymbolSet(CommandContext<CommandSourceStack> context, int minHours, String colorName, String symbol) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            HourTier existing = findTier(config, minHours);
+            if (existing == null) {
+                source.sendSystemMessage(Component.literal("No tier starts at " + minHours + "h")
+                        .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+            HourTier tier;
+            try {
+                ChatFormatting symbolColor = colorName != null ? HourTier.parseColor(colorName) : null;
+                tier = new HourTier(minHours, existing.hoursColors(), existing.hColor(),
+                        symbol != null ? symbol.trim() : null, symbolColor);
+            } catch (IllegalArgumentException e) {
+                source.sendSystemMessage(Component.literal(e.getMessage())
+                        .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+            config.hourTiers = config.hourTiers.with(tier);
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal(tier.symbol() != null ? "Set tier symbol: " : "Cleared tier symbol: ")
+                    .withStyle(ChatFormatting.GREEN)
+                    .append(formatTier(tier)));
+            LOGGER.info("{} set symbol of hour tier at {}h to {}", source.getTextName(), minHours, tier.symbol());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set tier symbol: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set symbol of hour tier at {}h", minHours, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Removes the tier starting at an hour and saves the config.
+     */
+    private static int tiersRemove(CommandContext<CommandSourceStack> context, int minHours) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            try {
+                config.hourTiers = config.hourTiers.without(minHours);
+            } catch (IllegalArgumentException e) {
+                source.sendSystemMessage(Component.literal(e.getMessage())
+                        .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Removed hour tier at " + minHours + "h")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} removed hour tier at {}h", source.getTextName(), minHours);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to remove hour tier: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to remove hour tier at {}h", minHours, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Restores the default hour tiers and saves the config.
+     */
+    private static int tiersReset(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.hourTiers = ConfigManager.DEFAULT_HOUR_TIERS;
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Reset hour tiers to the " + config.hourTiers.getTiers().size() + " default tiers")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} reset hour tiers", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to reset hour tiers: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to reset hour tiers", e);
+            return 0;
+        }
+    }
+
+    private static HourTier findTier(ConfigManager config, int minHours) {
+        for (HourTier tier : config.hourTiers.getTiers()) {
+            if (tier.minHours() == minHours) {
+                return tier;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Formats a tier as its start hour followed by a sample in its colors and its color names.
+     */
+    private static MutableComponent formatTier(HourTier tier) {
+        MutableComponent line = Component.literal(tier.minHours() + "h+: ").withStyle(ChatFormatting.WHITE);
+        if (tier.symbol() != null) {
+            line.append(Component.literal(tier.symbol() + " ").withStyle(tier.symbolColor()));
+        }
+        for (ChatFormatting color : tier.hoursColors()) {
+            line.append(Component.literal("#").withStyle(color));
+        }
+        line.append(Component.literal("h").withStyle(tier.hColor()));
+        String colors = tier.hoursColors().stream()
+                .map(color -> color.getName().toUpperCase())
+                .collect(Collectors.joining(" "));
+        String details = " (" + colors + ", h " + tier.hColor().getName().toUpperCase()
+                + (tier.symbol() != null ? ", symbol " + tier.symbolColor().getName().toUpperCase() : "") + ")";
+        return line.append(Component.literal(details).withStyle(ChatFormatting.GRAY));
+    }
+
+    /**
+     * Shows the Mojang API settings.
+     */
+    private static int mojangShow(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            source.sendSystemMessage(Component.literal("Mojang profile endpoint: " + config.mojangProfileEndpoint)
+                    .withStyle(ChatFormatting.WHITE));
+            source.sendSystemMessage(Component.literal("Concurrent requests: " + config.mojangMaxConcurrentRequests
+                            + ", request interval: " + config.mojangRequestIntervalMs + "ms")
+                    .withStyle(ChatFormatting.WHITE));
+            source.sendSystemMessage(Component.literal("Timeouts: connect " + config.mojangConnectTimeoutMs
+                            + "ms, request " + config.mojangRequestTimeoutMs + "ms")
+                    .withStyle(ChatFormatting.WHITE));
+
+            MojangProfileResolver resolver = MojangProfileResolver.getInstance();
+            source.sendSystemMessage(Component.literal("Server online mode: " + resolver.isServerOnlineMode()
+                            + ", offline-mode UUID lookups skipped: " + resolver.getSkippedOfflineUuids())
+                    .withStyle(ChatFormatting.WHITE));
+            source.sendSystemMessage(Component.literal("Unresolvable UUIDs waiting for retry: "
+                            + UnresolvedUsernameCache.getInstance(source.getServer()).size())
+                    .withStyle(ChatFormatting.WHITE));
+
+            CircuitBreaker.Status status = resolver.getCircuitBreaker().getStatus();
+            ChatFormatting stateColor = switch (status.state()) {
+                case CLOSED -> ChatFormatting.GREEN;
+                case HALF_OPEN -> ChatFormatting.YELLOW;
+                case OPEN -> ChatFormatting.RED;
+            };
+            String cooldown = status.state() == CircuitBreaker.State.OPEN
+                    ? " (retry in " + (status.remainingCooldownMillis() + 999) / 1000 + "s)"
+                    : "";
+            source.sendSystemMessage(Component.literal("Circuit breaker: " + status.state() + cooldown
+                            + ", opens after " + config.mojangFailureThreshold + " failures for " + config.mojangCooldownSeconds + "s")
+                    .withStyle(stateColor));
+            source.sendSystemMessage(Component.literal("Failures: " + status.consecutiveFailures() + " consecutive, "
+                            + status.totalFailures() + " total; successes: " + status.totalSuccesses()
+                            + "; rejected: " + status.rejectedCalls()
+                            + (status.lastFailure() != null ? "; last failure: " + status.lastFailure() : ""))
+                    .withStyle(ChatFormatting.WHITE));
+            LOGGER.info("{} viewed Mojang API settings", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to show Mojang API settings: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to show Mojang API settings", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the Mojang profile endpoint and saves the config.
+     */
+    private static int mojangEndpointSet(CommandContext<CommandSourceStack> context, String url) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            if (!url.startsWith("http://") && !url.startsWith("https://")) {
+                source.sendSystemMessage(Component.literal("Invalid endpoint. Use an http:// or https:// URL")
+                        .withStyle(ChatFormatting.RED));
+                return 0;
+            }
+            config.mojangProfileEndpoint = url;
+            config.applyMojangSettings();
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set Mojang profile endpoint to " + url)
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set Mojang profile endpoint to {}", source.getTextName(), url);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set Mojang profile endpoint: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set Mojang profile endpoint to {}", url, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the maximum number of concurrent Mojang API requests and saves the config.
+     */
+    private static int mojangConcurrencySet(CommandContext<CommandSourceStack> context, int requests) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.mojangMaxConcurrentRequests = requests;
+            config.applyMojangSettings();
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set concurrent Mojang API requests to " + requests)
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set concurrent Mojang API requests to {}", source.getTextName(), requests);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set concurrent Mojang API requests: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set concurrent Mojang API requests to {}", requests, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the minimum delay between Mojang API requests and saves the config.
+     */
+    private static int mojangIntervalSet(CommandContext<CommandSourceStack> context, int milliseconds) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.mojangRequestIntervalMs = milliseconds;
+            config.applyMojangSettings();
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set Mojang API request interval to " + milliseconds + "ms")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set Mojang API request interval to {}ms", source.getTextName(), milliseconds);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set Mojang API request interval: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set Mojang API request interval to {}", milliseconds, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the Mojang API connect and request timeouts and saves the config.
+     */
+    private static int mojangTimeoutSet(CommandContext<CommandSourceStack> context, int connectMs, int requestMs) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.mojangConnectTimeoutMs = connectMs;
+            config.mojangRequestTimeoutMs = requestMs;
+            config.applyMojangSettings();
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Set Mojang API timeouts to connect " + connectMs + "ms, request " + requestMs + "ms")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set Mojang API timeouts to {}ms/{}ms", source.getTextName(), connectMs, requestMs);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set Mojang API timeouts: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set Mojang API timeouts to {}ms/{}ms", connectMs, requestMs, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Sets the Mojang API circuit breaker threshold and cool-down and saves the config.
+     */
+    private static int mojangBreakerSet(CommandContext<CommandSourceStack> context, int failures, int cooldownSeconds) {
+        CommandSourceStack source = context.getSource();
+        try {
+            ConfigManager config = StatsCore.getConfigManager();
+            if (config == null) {
+                throw new IllegalStateException("ConfigManager not initialized");
+            }
+            config.mojangFailureThreshold = failures;
+            config.mojangCooldownSeconds = cooldownSeconds;
+            config.applyMojangSettings();
+            saveConfig(config);
+            source.sendSystemMessage(Component.literal("Mojang API circuit breaker now opens after " + failures
+                            + " failures for " + cooldownSeconds + "s")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} set Mojang API circuit breaker to {} failures/{}s", source.getTextName(), failures, cooldownSeconds);
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to set Mojang API circuit breaker: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to set Mojang API circuit breaker to {} failures/{}s", failures, cooldownSeconds, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Closes the Mojang API circuit breaker so lookups resume immediately.
+     */
+    private static int mojangBreakerReset(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        try {
+            MojangProfileResolver.getInstance().getCircuitBreaker().reset();
+            source.sendSystemMessage(Component.literal("Reset Mojang API circuit breaker")
+                    .withStyle(ChatFormatting.GREEN));
+            LOGGER.info("{} reset the Mojang API circuit breaker", source.getTextName());
+            return 1;
+        } catch (Exception e) {
+            source.sendSystemMessage(Component.literal("Failed to reset Mojang API circuit breaker: " + e.getMessage())
+                    .withStyle(ChatFormatting.RED));
+            LOGGER.error("Failed to reset Mojang API circuit breaker", e);
+            return 0;
+        }
+    }
+
     /**
      * Saves the configuration to disk.
      */
@@ -367,6 +1180,21 @@ public class StatsConfigCommand {
         JsonObject configJson = new JsonObject();
         configJson.addProperty("_comment", "DO NOT EDIT THIS FILE MANUALLY. Use /statsconfig commands to modify settings.");
         configJson.addProperty("daily_reset_time", config.dailyResetTime);
+        configJson.addProperty("async_leaderboard", config.asyncLeaderboard);
+        configJson.addProperty("async_timeout_seconds", config.asyncTimeoutSeconds);
+        configJson.addProperty("scan_parallelism", config.scanParallelism);
+        configJson.addProperty("sample_interval_ticks", config.sampleIntervalTicks);
+        configJson.addProperty("sample_slices", config.sampleSlices);
+        configJson.addProperty("leaderboard_page_size", config.leaderboardPageSize);
+        configJson.addProperty("leaderboard_output_mode", config.leaderboardOutputMode.getName());
+        configJson.addProperty("mojang_profile_endpoint", config.mojangProfileEndpoint);
+        configJson.addProperty("mojang_max_concurrent_requests", config.mojangMaxConcurrentRequests);
+        configJson.addProperty("mojang_request_interval_ms", config.mojangRequestIntervalMs);
+        configJson.addProperty("mojang_connect_timeout_ms", config.mojangConnectTimeoutMs);
+        configJson.addProperty("mojang_request_timeout_ms", config.mojangRequestTimeoutMs);
+        configJson.addProperty("mojang_failure_threshold", config.mojangFailureThreshold);
+        configJson.addProperty("mojang_cooldown_seconds", config.mojangCooldownSeconds);
+        configJson.add("hour_tiers", ConfigManager.hourTiersToJson(config.hourTiers));
 
         JsonObject usernameColorsJson = new JsonObject();
         config.getUsernameColors().forEach((username, color) ->
@@ -377,7 +1205,7 @@ public class StatsConfigCommand {
         config.getBlacklistedPlayers().forEach(blacklistedPlayersJson::add);
         configJson.add("blacklisted_players", blacklistedPlayersJson);
 
-        try (java.io.FileWriter writer = new java.io.FileWriter(ConfigManager.CONFIG_PATH.toFile())) {
+        try (java.io.FileWriter writer = new java.io.FileWriter(ConfigManager.CONFIG_PATH.toFile(), java.nio.charset.StandardCharsets.UTF_8)) {
             new com.google.gson.GsonBuilder().setPrettyPrinting().create().toJson(configJson, writer);
             LOGGER.info("Saved statscore_config.json");
         } catch (java.io.IOException e) {
@@ -1,21 +1,35 @@
 package net.craftmaster08.cm08statscore;
 
 import net.craftmaster08.cm08statscore.cache.PlaytimeUsernameCache;
+import net.craftmaster08.cm08statscore.cache.UnresolvedUsernameCache;
 import net.craftmaster08.cm08statscore.config.ConfigManager;
 import net.craftmaster08.cm08statscore.playtime.DailyPlaytimeTracker;
+import net.craftmaster08.cm08statscore.playtime.PlaytimeSampler;
+import net.craftmaster08.cm08statscore.playtime.PlaytimeTracker;
+import net.craftmaster08.statsengine.cache.MojangProfileResolver;
+import net.craftmaster08.statsengine.playtime.LoggedOutPlaytimes;
+import net.craftmaster08.statsengine.playtime.PlaytimeIndex;
+import net.craftmaster08.statsengine.playtime.PlaytimeRankIndex;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.stats.Stats;
+import net.minecraft.world.level.storage.LevelResource;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.RegisterCommandsEvent;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Main class for the StatsCore mod, managing core functionality and dependencies.
  */
@@ -23,9 +37,19 @@ import org.apache.logging.log4j.Logger;
 public class StatsCore {
     public static final String MODID = "cm08statscore";
     private static final Logger LOGGER = LogManager.getLogger(StatsCore.class);
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "StatsCore Worker");
+        thread.setDaemon(true);
+        return thread;
+    });
     private static ConfigManager configManager;
     private static PlaytimeUsernameCache usernameCache;
+    private static UnresolvedUsernameCache unresolvedCache;
     private static DailyPlaytimeTracker dailyPlaytimeTracker;
+    private static PlaytimeIndex playtimeIndex;
+    private static PlaytimeRankIndex rankIndex;
+    private static LoggedOutPlaytimes loggedOutPlaytimes;
+    private static PlaytimeSampler sampler;
     private static MinecraftServer server;
 
     public StatsCore() {
@@ -52,11 +76,22 @@ public class StatsCore {
         }
 
         @SubscribeEvent
-        public void onPlayerTick(TickEvent.PlayerTickEvent event) {
-            if (event.phase == TickEvent.Phase.END && event.player instanceof ServerPlayer player) {
-                if (player.tickCount % 100 == 0 && dailyPlaytimeTracker != null) {
-                    dailyPlaytimeTracker.updatePlayer(player);
-                }
+        public void onServerStopping(ServerStoppingEvent event) {
+            if (usernameCache != null) {
+                usernameCache.close();
+            }
+            if (unresolvedCache != null) {
+                unresolvedCache.close();
+            }
+            if (dailyPlaytimeTracker != null) {
+                dailyPlaytimeTracker.close();
+            }
+        }
+
+        @SubscribeEvent
+        public void onServerTick(TickEvent.ServerTickEvent event) {
+            if (event.phase == TickEvent.Phase.END && sampler != null && configManager != null) {
+                sampler.tick(server, configManager.sampleIntervalTicks, configManager.sampleSlices);
             }
         }
 
@@ -69,13 +104,30 @@ public class StatsCore {
                 if (usernameCache != null) {
                     usernameCache.storeUsername(player.getUUID(), player.getGameProfile().getName());
                 }
+                if (unresolvedCache != null) {
+                    // The name is known now, so an earlier failed lookup no longer applies
+                    unresolvedCache.clear(List.of(player.getUUID()));
+                }
+                if (loggedOutPlaytimes != null) {
+                    loggedOutPlaytimes.remove(player.getUUID());
+                }
+                if (rankIndex != null) {
+                    rankIndex.update(player.getUUID(), player.getGameProfile().getName(),
+                            player.getStats().getValue(Stats.CUSTOM.get(Stats.PLAY_TIME)));
+                }
             }
         }
 
         @SubscribeEvent
         public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
-            if (event.getEntity() instanceof ServerPlayer player && dailyPlaytimeTracker != null) {
-                dailyPlaytimeTracker.playerLoggedOut(player);
+            if (event.getEntity() instanceof ServerPlayer player) {
+                if (dailyPlaytimeTracker != null) {
+                    dailyPlaytimeTracker.playerLoggedOut(player);
+                }
+                if (loggedOutPlaytimes != null) {
+                    loggedOutPlaytimes.record(player.getUUID(), player.getGameProfile().getName(),
+                            player.getStats().getValue(Stats.CUSTOM.get(Stats.PLAY_TIME)));
+                }
             }
         }
     }
@@ -94,11 +146,39 @@ public class StatsCore {
             }
             configManager = new ConfigManager(dailyPlaytimeTracker);
             usernameCache = PlaytimeUsernameCache.getInstance(server);
+            unresolvedCache = UnresolvedUsernameCache.getInstance(server);
+            playtimeIndex = new PlaytimeIndex(server.getWorldPath(LevelResource.ROOT).resolve("playtime_index.dat"));
+            playtimeIndex.load();
+            rankIndex = new PlaytimeRankIndex();
+            playtimeIndex.forEach(entry -> {
+                if (entry.playTimeTicks() >= 0) {
+                    rankIndex.update(entry.uuid(), entry.username(), entry.playTimeTicks());
+                }
+            });
+            loggedOutPlaytimes = new LoggedOutPlaytimes();
+            sampler = new PlaytimeSampler(dailyPlaytimeTracker, rankIndex);
+            MojangProfileResolver.getInstance().setServerOnlineMode(server.usesAuthentication());
+            if (!server.usesAuthentication()) {
+                LOGGER.info("Server is in offline mode; name-based player UUIDs are resolved from local caches only");
+            }
             try {
                 configManager.loadConfig();
             } catch (Exception e) {
                 LOGGER.error("Failed to load config: {}", e.getMessage(), e);
             }
+
+            // Without a saved index, /playtime rank would only know the online players until the first full scan
+            if (playtimeIndex.size() > 0) {
+                rankIndex.markSeeded();
+            } else {
+                WORKER.execute(() -> {
+                    try {
+                        PlaytimeTracker.seedRankIndex(server);
+                    } catch (RuntimeException e) {
+                        LOGGER.error("Failed to seed playtime rank index: {}", e.getMessage(), e);
+                    }
+                });
+            }
         }
     }
 
@@ -125,4 +205,50 @@ public class StatsCore {
         }
         return dailyPlaytimeTracker;
     }
+
+    /**
+     * Gets the offline playtime index of the current world.
+     *
+     * @return The PlaytimeIndex, or null if not initialized.
+     */
+    public static PlaytimeIndex getPlaytimeIndex() {
+        return playtimeIndex;
+    }
+
+    /**
+     * Gets the live playtime ranking of all known players.
+     *
+     * @return The PlaytimeRankIndex, or null if not initialized.
+     */
+    public static PlaytimeRankIndex getRankIndex() {
+        return rankIndex;
+    }
+
+    /**
+     * Gets the playtimes captured from players who logged out since the server started.
+     *
+     * @return The LoggedOutPlaytimes, or null if not initialized.
+     */
+    public static LoggedOutPlaytimes getLoggedOutPlaytimes() {
+        return loggedOutPlaytimes;
+    }
+
+    /**
+     * Gets the sampler that feeds online players' play_time into the daily tracker and the rank index.
+     *
+     * @return The PlaytimeSampler, or null if not initialized.
+     */
+    public static PlaytimeSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Gets the background executor used for work that must not block the server thread.
+     * Results that touch game state have to be handed back with {@link MinecraftServer#execute(Runnable)}.
+     *
+     * @return The StatsCore worker executor.
+     */
+    public static ExecutorService getWorker() {
+        return WORKER;
+    }
 }
\ No newline at end of file
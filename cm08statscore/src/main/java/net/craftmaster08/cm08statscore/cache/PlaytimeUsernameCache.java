@@ -1,43 +1,25 @@
 package net.craftmaster08.cm08statscore.cache;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import net.craftmaster08.statsengine.cache.UsernameStore;
 import net.minecraft.server.MinecraftServer;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import java.io.*;
-import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * Manages a cache of player UUIDs to usernames, persisted to a JSON file.
+ * The server's username cache: a {@link UsernameStore} kept in the server directory, shared by all StatsCore users.
  */
-public class PlaytimeUsernameCache {
-    private static final Logger LOGGER = LogManager.getLogger(PlaytimeUsernameCache.class);
-
+public class PlaytimeUsernameCache extends UsernameStore {
     private static class Holder {
         private static volatile PlaytimeUsernameCache INSTANCE;
     }
 
-    private final File cacheFile;
-    private final Map<UUID, String> usernameMap;
-    private final Gson gson;
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-
     private PlaytimeUsernameCache(MinecraftServer server) {
+        super(requireServer(server).getServerDirectory());
+    }
+
+    private static MinecraftServer requireServer(MinecraftServer server) {
         if (server == null) {
             throw new IllegalArgumentException("MinecraftServer cannot be null");
         }
-        this.cacheFile = new File(server.getServerDirectory(), "playtime_usernames.json");
-        this.usernameMap = new HashMap<>();
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
-        loadCache();
+        return server;
     }
 
     /**
@@ -61,75 +43,16 @@ public class PlaytimeUsernameCache {
     }
 
     /**
-     * Gets the username for a given UUID.
-     *
-     * @param uuid The player's UUID.
-     * @return The username, or null if not found.
+     * Saves and closes the cache and releases the singleton, so the next world loaded by this JVM gets a fresh cache
+     * instead of one whose journal thread has stopped.
      */
-    public String getUsername(UUID uuid) {
-        lock.readLock().lock();
-        try {
-            return usernameMap.get(uuid);
-        } finally {
-            lock.readLock().unlock();
-        }
-    }
-
-    /**
-     * Stores a username for a given UUID and saves the cache.
-     *
-     * @param uuid     The player's UUID.
-     * @param username The player's username.
-     */
-    public void storeUsername(UUID uuid, String username) {
-        lock.writeLock().lock();
-        try {
-            usernameMap.put(uuid, username);
-            saveCache();
-        } finally {
-            lock.writeLock().unlock();
-        }
-    }
-
-    private void loadCache() {
-        if (!cacheFile.exists()) {
-            return;
-        }
-        lock.writeLock().lock();
-        try (FileReader reader = new FileReader(cacheFile)) {
-            Type type = new TypeToken<Map<String, String>>(){}.getType();
-            Map<String, String> rawMap = gson.fromJson(reader, type);
-            if (rawMap != null) {
-                for (Map.Entry<String, String> entry : rawMap.entrySet()) {
-                    try {
-                        UUID uuid = UUID.fromString(entry.getKey());
-                        usernameMap.put(uuid, entry.getValue());
-                    } catch (IllegalArgumentException e) {
-                        LOGGER.warn("Invalid UUID in cache: {}", entry.getKey());
-                    }
-                }
-                LOGGER.info("Loaded username cache with {} entries", usernameMap.size());
-            }
-        } catch (IOException e) {
-            LOGGER.error("Error loading username cache", e);
-        } finally {
-            lock.writeLock().unlock();
-        }
-    }
-
-    private void saveCache() {
-        lock.writeLock().lock();
-        try {
-            Map<String, String> rawMap = new HashMap<>();
-            usernameMap.forEach((uuid, username) -> rawMap.put(uuid.toString(), username));
-            try (FileWriter writer = new FileWriter(cacheFile)) {
-                gson.toJson(rawMap, writer);
-                LOGGER.info("Saved username cache");
+    @Override
+    public void close() {
+        synchronized (PlaytimeUsernameCache.class) {
+            if (Holder.INSTANCE == this) {
+                Holder.INSTANCE = null;
             }
-        } catch (IOException e) {
-            LOGGER.error("Error saving username cache", e);
-        } finally {
-            lock.writeLock().unlock();
         }
+        super.close();
     }
-}
\ No newline at end of file
+}
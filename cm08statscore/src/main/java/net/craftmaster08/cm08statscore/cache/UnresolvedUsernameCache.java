@@ -0,0 +1,59 @@
+package net.craftmaster08.cm08statscore.cache;
+
+import net.craftmaster08.statsengine.cache.UnresolvedUsernameStore;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * The server's record of UUIDs the Mojang API did not know: an {@link UnresolvedUsernameStore} kept in the server
+ * directory.
+ */
+public class UnresolvedUsernameCache extends UnresolvedUsernameStore {
+    private static class Holder {
+        private static volatile UnresolvedUsernameCache INSTANCE;
+    }
+
+    private UnresolvedUsernameCache(MinecraftServer server) {
+        super(requireServer(server).getServerDirectory());
+    }
+
+    private static MinecraftServer requireServer(MinecraftServer server) {
+        if (server == null) {
+            throw new IllegalArgumentException("MinecraftServer cannot be null");
+        }
+        return server;
+    }
+
+    /**
+     * Gets the singleton instance of the unresolved username cache.
+     *
+     * @param server The Minecraft server instance.
+     * @return The unresolved username cache instance.
+     */
+    public static UnresolvedUsernameCache getInstance(MinecraftServer server) {
+        UnresolvedUsernameCache instance = Holder.INSTANCE;
+        if (instance == null) {
+            synchronized (UnresolvedUsernameCache.class) {
+                instance = Holder.INSTANCE;
+                if (instance == null) {
+                    instance = new UnresolvedUsernameCache(server);
+                    Holder.INSTANCE = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Saves and closes the cache and releases the singleton, so the next world loaded by this JVM gets a fresh cache
+     * instead of one whose writer thread has stopped.
+     */
+    @Override
+    public void close() {
+        synchronized (UnresolvedUsernameCache.class) {
+            if (Holder.INSTANCE == this) {
+                Holder.INSTANCE = null;
+            }
+        }
+        super.close();
+    }
+}
@@ -5,12 +5,14 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.craftmaster08.cm08statscore.playtime.DailyPlaytimeTracker;
+import net.craftmaster08.statsengine.cache.MojangProfileResolver;
 import net.minecraft.ChatFormatting;
 import net.minecraftforge.fml.loading.FMLPaths;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.*;
 
@@ -22,10 +24,60 @@ public class ConfigManager {
     public static final Path CONFIG_PATH = FMLPaths.CONFIGDIR.get().resolve("statscore_config.json");
     public static final Path OLD_CONFIG_PATH = FMLPaths.CONFIGDIR.get().resolve("playtimeleaderboard_config.json");
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    public static final boolean DEFAULT_ASYNC_LEADERBOARD = true;
+    public static final int DEFAULT_ASYNC_TIMEOUT_SECONDS = 30;
+    public static final int DEFAULT_SCAN_PARALLELISM = 0;
+    public static final int DEFAULT_SAMPLE_INTERVAL_TICKS = 100;
+    public static final int DEFAULT_SAMPLE_SLICES = 5;
+    public static final int DEFAULT_LEADERBOARD_PAGE_SIZE = 10;
+    public static final LeaderboardOutputMode DEFAULT_LEADERBOARD_OUTPUT_MODE = LeaderboardOutputMode.CHUNKED;
+    public static final HourTierTable DEFAULT_HOUR_TIERS = HourTierTable.DEFAULT;
+
+    /**
+     * How /playtime sends the leaderboard to chat.
+     */
+    public enum LeaderboardOutputMode {
+        /** One chat message per line. */
+        LINES,
+        /** One multi-line chat message, split only where the protocol requires it. */
+        SINGLE,
+        /** Multi-line chat messages of a limited size. */
+        CHUNKED;
+
+        /**
+         * Parses a mode name, ignoring case.
+         *
+         * @param name The mode name.
+         * @return The mode.
+         * @throws IllegalArgumentException If no mode has that name.
+         */
+        public static LeaderboardOutputMode fromName(String name) {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
 
     public Map<String, ChatFormatting> usernameColors;
     public Set<String> blacklistedPlayers;
     public String dailyResetTime;
+    public boolean asyncLeaderboard;
+    public int asyncTimeoutSeconds;
+    public int scanParallelism;
+    public int sampleIntervalTicks;
+    public int sampleSlices;
+    public int leaderboardPageSize;
+    public LeaderboardOutputMode leaderboardOutputMode;
+    public HourTierTable hourTiers;
+    public String mojangProfileEndpoint;
+    public int mojangMaxConcurrentRequests;
+    public int mojangRequestIntervalMs;
+    public int mojangConnectTimeoutMs;
+    public int mojangRequestTimeoutMs;
+    public int mojangFailureThreshold;
+    public int mojangCooldownSeconds;
     public final DailyPlaytimeTracker dailyPlaytimeTracker;
 
     public ConfigManager(DailyPlaytimeTracker dailyPlaytimeTracker) {
@@ -36,6 +88,21 @@ public class ConfigManager {
         this.usernameColors = Map.of();
         this.blacklistedPlayers = Set.of();
         this.dailyResetTime = "00:00:00";
+        this.asyncLeaderboard = DEFAULT_ASYNC_LEADERBOARD;
+        this.asyncTimeoutSeconds = DEFAULT_ASYNC_TIMEOUT_SECONDS;
+        this.scanParallelism = DEFAULT_SCAN_PARALLELISM;
+        this.sampleIntervalTicks = DEFAULT_SAMPLE_INTERVAL_TICKS;
+        this.sampleSlices = DEFAULT_SAMPLE_SLICES;
+        this.leaderboardPageSize = DEFAULT_LEADERBOARD_PAGE_SIZE;
+        this.leaderboardOutputMode = DEFAULT_LEADERBOARD_OUTPUT_MODE;
+        this.hourTiers = DEFAULT_HOUR_TIERS;
+        this.mojangProfileEndpoint = MojangProfileResolver.DEFAULT_PROFILE_ENDPOINT;
+        this.mojangMaxConcurrentRequests = MojangProfileResolver.DEFAULT_MAX_CONCURRENT_REQUESTS;
+        this.mojangRequestIntervalMs = MojangProfileResolver.DEFAULT_REQUEST_INTERVAL_MS;
+        this.mojangConnectTimeoutMs = MojangProfileResolver.DEFAULT_CONNECT_TIMEOUT_MS;
+        this.mojangRequestTimeoutMs = MojangProfileResolver.DEFAULT_REQUEST_TIMEOUT_MS;
+        this.mojangFailureThreshold = MojangProfileResolver.DEFAULT_FAILURE_THRESHOLD;
+        this.mojangCooldownSeconds = MojangProfileResolver.DEFAULT_COOLDOWN_SECONDS;
         loadConfig();
     }
 
@@ -57,6 +124,18 @@ public class ConfigManager {
         return blacklistedPlayers;
     }
 
+    /**
+     * Converts hour tiers to their statscore_config.json form.
+     *
+     * @param hourTiers The tiers.
+     * @return The hour_tiers array.
+     */
+    public static com.google.gson.JsonArray hourTiersToJson(HourTierTable hourTiers) {
+        com.google.gson.JsonArray array = new com.google.gson.JsonArray();
+        hourTiers.getTiers().forEach(tier -> array.add(tier.toJson()));
+        return array;
+    }
+
     /**
      * Loads the configuration, handling old playtimeleaderboard_config.json if present and no new config exists.
      */
@@ -85,6 +164,7 @@ public class ConfigManager {
         }
 
         ConfigLoader.load(configFile, this);
+        applyMojangSettings();
         if (dailyPlaytimeTracker != null) {
             dailyPlaytimeTracker.setDailyResetTime(dailyResetTime);
         } else {
@@ -92,6 +172,16 @@ public class ConfigManager {
         }
     }
 
+    /**
+     * Pushes the Mojang API settings to the shared profile resolver.
+     */
+    public void applyMojangSettings() {
+        MojangProfileResolver resolver = MojangProfileResolver.getInstance();
+        resolver.configure(mojangProfileEndpoint, mojangMaxConcurrentRequests, mojangRequestIntervalMs,
+                mojangConnectTimeoutMs, mojangRequestTimeoutMs);
+        resolver.configureCircuitBreaker(mojangFailureThreshold, mojangCooldownSeconds);
+    }
+
     /**
      * Migrates the old playtimeleaderboard_config.json to the new statscore_config.json format.
      *
@@ -171,7 +261,7 @@ public class ConfigManager {
      */
     private static class ConfigLoader {
         static void load(File configFile, ConfigManager manager) {
-            try (FileReader reader = new FileReader(configFile)) {
+            try (FileReader reader = new FileReader(configFile, StandardCharsets.UTF_8)) {
                 JsonObject configJson = GSON.fromJson(reader, JsonObject.class);
                 if (configJson == null) {
                     throw new JsonParseException("Config file is empty or invalid JSON");
@@ -206,12 +296,93 @@ public class ConfigManager {
                         ? configJson.get("daily_reset_time").getAsString()
                         : "00:00:00";
 
+                boolean tempAsyncLeaderboard = configJson.has("async_leaderboard")
+                        ? configJson.get("async_leaderboard").getAsBoolean()
+                        : DEFAULT_ASYNC_LEADERBOARD;
+                int tempAsyncTimeoutSeconds = configJson.has("async_timeout_seconds")
+                        ? Math.max(1, configJson.get("async_timeout_seconds").getAsInt())
+                        : DEFAULT_ASYNC_TIMEOUT_SECONDS;
+                int tempScanParallelism = configJson.has("scan_parallelism")
+                        ? Math.max(0, configJson.get("scan_parallelism").getAsInt())
+                        : DEFAULT_SCAN_PARALLELISM;
+                int tempSampleIntervalTicks = configJson.has("sample_interval_ticks")
+                        ? Math.max(1, configJson.get("sample_interval_ticks").getAsInt())
+                        : DEFAULT_SAMPLE_INTERVAL_TICKS;
+                int tempSampleSlices = configJson.has("sample_slices")
+                        ? Math.max(1, configJson.get("sample_slices").getAsInt())
+                        : DEFAULT_SAMPLE_SLICES;
+                int tempLeaderboardPageSize = configJson.has("leaderboard_page_size")
+                        ? Math.max(1, configJson.get("leaderboard_page_size").getAsInt())
+                        : DEFAULT_LEADERBOARD_PAGE_SIZE;
+                LeaderboardOutputMode tempLeaderboardOutputMode = DEFAULT_LEADERBOARD_OUTPUT_MODE;
+                if (configJson.has("leaderboard_output_mode")) {
+                    String mode = configJson.get("leaderboard_output_mode").getAsString();
+                    try {
+                        tempLeaderboardOutputMode = LeaderboardOutputMode.fromName(mode);
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.warn("Invalid leaderboard_output_mode '{}', using {}", mode, DEFAULT_LEADERBOARD_OUTPUT_MODE.getName());
+                    }
+                }
+                HourTierTable tempHourTiers = DEFAULT_HOUR_TIERS;
+                if (configJson.has("hour_tiers") && configJson.get("hour_tiers").isJsonArray()) {
+                    List<HourTier> tiers = new ArrayList<>();
+                    for (com.google.gson.JsonElement element : configJson.getAsJsonArray("hour_tiers")) {
+                        try {
+                            tiers.add(HourTier.fromJson(element.getAsJsonObject()));
+                        } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException
+                                 | ClassCastException e) {
+                            LOGGER.warn("Invalid hour tier {}: {}", element, e.getMessage());
+                        }
+                    }
+                    try {
+                        tempHourTiers = HourTierTable.compile(tiers);
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.warn("Invalid hour_tiers ({}), using the default tiers", e.getMessage());
+                    }
+                }
+                String tempMojangProfileEndpoint = configJson.has("mojang_profile_endpoint")
+                        ? configJson.get("mojang_profile_endpoint").getAsString()
+                        : MojangProfileResolver.DEFAULT_PROFILE_ENDPOINT;
+                int tempMojangMaxConcurrentRequests = configJson.has("mojang_max_concurrent_requests")
+                        ? Math.max(1, configJson.get("mojang_max_concurrent_requests").getAsInt())
+                        : MojangProfileResolver.DEFAULT_MAX_CONCURRENT_REQUESTS;
+                int tempMojangRequestIntervalMs = configJson.has("mojang_request_interval_ms")
+                        ? Math.max(0, configJson.get("mojang_request_interval_ms").getAsInt())
+                        : MojangProfileResolver.DEFAULT_REQUEST_INTERVAL_MS;
+                int tempMojangConnectTimeoutMs = configJson.has("mojang_connect_timeout_ms")
+                        ? Math.max(1, configJson.get("mojang_connect_timeout_ms").getAsInt())
+                        : MojangProfileResolver.DEFAULT_CONNECT_TIMEOUT_MS;
+                int tempMojangRequestTimeoutMs = configJson.has("mojang_request_timeout_ms")
+                        ? Math.max(1, configJson.get("mojang_request_timeout_ms").getAsInt())
+                        : MojangProfileResolver.DEFAULT_REQUEST_TIMEOUT_MS;
+                int tempMojangFailureThreshold = configJson.has("mojang_failure_threshold")
+                        ? Math.max(1, configJson.get("mojang_failure_threshold").getAsInt())
+                        : MojangProfileResolver.DEFAULT_FAILURE_THRESHOLD;
+                int tempMojangCooldownSeconds = configJson.has("mojang_cooldown_seconds")
+                        ? Math.max(0, configJson.get("mojang_cooldown_seconds").getAsInt())
+                        : MojangProfileResolver.DEFAULT_COOLDOWN_SECONDS;
+
                 manager.usernameColors = Map.copyOf(tempUsernameColors);
                 manager.blacklistedPlayers = Set.copyOf(tempBlacklistedPlayers);
                 manager.dailyResetTime = tempDailyResetTime;
+                manager.asyncLeaderboard = tempAsyncLeaderboard;
+                manager.asyncTimeoutSeconds = tempAsyncTimeoutSeconds;
+                manager.scanParallelism = tempScanParallelism;
+                manager.sampleIntervalTicks = tempSampleIntervalTicks;
+                manager.sampleSlices = tempSampleSlices;
+                manager.leaderboardPageSize = tempLeaderboardPageSize;
+                manager.leaderboardOutputMode = tempLeaderboardOutputMode;
+                manager.hourTiers = tempHourTiers;
+                manager.mojangProfileEndpoint = tempMojangProfileEndpoint;
+                manager.mojangMaxConcurrentRequests = tempMojangMaxConcurrentRequests;
+                manager.mojangRequestIntervalMs = tempMojangRequestIntervalMs;
+                manager.mojangConnectTimeoutMs = tempMojangConnectTimeoutMs;
+                manager.mojangRequestTimeoutMs = tempMojangRequestTimeoutMs;
+                manager.mojangFailureThreshold = tempMojangFailureThreshold;
+                manager.mojangCooldownSeconds = tempMojangCooldownSeconds;
                 LOGGER.info("Successfully loaded statscore_config.json");
                 LOGGER.info("Blacklisted players after loading: {}", tempBlacklistedPlayers);
-            } catch (IOException | JsonParseException e) {
+            } catch (IOException | JsonParseException | IllegalStateException | UnsupportedOperationException e) {
                 LOGGER.error("Failed to load statscore_config.json", e);
                 resetToDefaults(manager);
             }
@@ -221,10 +392,25 @@ public class ConfigManager {
             JsonObject defaultConfig = new JsonObject();
             defaultConfig.addProperty("_comment", "DO NOT EDIT THIS FILE MANUALLY. Use /statsconfig commands to modify settings.");
             defaultConfig.addProperty("daily_reset_time", "00:00:00");
+            defaultConfig.addProperty("async_leaderboard", DEFAULT_ASYNC_LEADERBOARD);
+            defaultConfig.addProperty("async_timeout_seconds", DEFAULT_ASYNC_TIMEOUT_SECONDS);
+            defaultConfig.addProperty("scan_parallelism", DEFAULT_SCAN_PARALLELISM);
+            defaultConfig.addProperty("sample_interval_ticks", DEFAULT_SAMPLE_INTERVAL_TICKS);
+            defaultConfig.addProperty("sample_slices", DEFAULT_SAMPLE_SLICES);
+            defaultConfig.addProperty("leaderboard_page_size", DEFAULT_LEADERBOARD_PAGE_SIZE);
+            defaultConfig.addProperty("leaderboard_output_mode", DEFAULT_LEADERBOARD_OUTPUT_MODE.getName());
+            defaultConfig.addProperty("mojang_profile_endpoint", MojangProfileResolver.DEFAULT_PROFILE_ENDPOINT);
+            defaultConfig.addProperty("mojang_max_concurrent_requests", MojangProfileResolver.DEFAULT_MAX_CONCURRENT_REQUESTS);
+            defaultConfig.addProperty("mojang_request_interval_ms", MojangProfileResolver.DEFAULT_REQUEST_INTERVAL_MS);
+            defaultConfig.addProperty("mojang_connect_timeout_ms", MojangProfileResolver.DEFAULT_CONNECT_TIMEOUT_MS);
+            defaultConfig.addProperty("mojang_request_timeout_ms", MojangProfileResolver.DEFAULT_REQUEST_TIMEOUT_MS);
+            defaultConfig.addProperty("mojang_failure_threshold", MojangProfileResolver.DEFAULT_FAILURE_THRESHOLD);
+            defaultConfig.addProperty("mojang_cooldown_seconds", MojangProfileResolver.DEFAULT_COOLDOWN_SECONDS);
+            defaultConfig.add("hour_tiers", hourTiersToJson(DEFAULT_HOUR_TIERS));
             defaultConfig.add("username_colors", new JsonObject());
             defaultConfig.add("blacklisted_players", new com.google.gson.JsonArray());
 
-            try (FileWriter writer = new FileWriter(configFile)) {
+            try (FileWriter writer = new FileWriter(configFile, StandardCharsets.UTF_8)) {
                 GSON.toJson(defaultConfig, writer);
                 LOGGER.info("Created default statscore_config.json at {}", configFile.getAbsolutePath());
             } catch (IOException e) {
@@ -237,6 +423,21 @@ public class ConfigManager {
             manager.usernameColors = Map.of();
             manager.blacklistedPlayers = Set.of();
             manager.dailyResetTime = "00:00:00";
+            manager.asyncLeaderboard = DEFAULT_ASYNC_LEADERBOARD;
+            manager.asyncTimeoutSeconds = DEFAULT_ASYNC_TIMEOUT_SECONDS;
+            manager.scanParallelism = DEFAULT_SCAN_PARALLELISM;
+            manager.sampleIntervalTicks = DEFAULT_SAMPLE_INTERVAL_TICKS;
+            manager.sampleSlices = DEFAULT_SAMPLE_SLICES;
+            manager.leaderboardPageSize = DEFAULT_LEADERBOARD_PAGE_SIZE;
+            manager.leaderboardOutputMode = DEFAULT_LEADERBOARD_OUTPUT_MODE;
+            manager.hourTiers = DEFAULT_HOUR_TIERS;
+            manager.mojangProfileEndpoint = MojangProfileResolver.DEFAULT_PROFILE_ENDPOINT;
+            manager.mojangMaxConcurrentRequests = MojangProfileResolver.DEFAULT_MAX_CONCURRENT_REQUESTS;
+            manager.mojangRequestIntervalMs = MojangProfileResolver.DEFAULT_REQUEST_INTERVAL_MS;
+            manager.mojangConnectTimeoutMs = MojangProfileResolver.DEFAULT_CONNECT_TIMEOUT_MS;
+            manager.mojangRequestTimeoutMs = MojangProfileResolver.DEFAULT_REQUEST_TIMEOUT_MS;
+            manager.mojangFailureThreshold = MojangProfileResolver.DEFAULT_FAILURE_THRESHOLD;
+            manager.mojangCooldownSeconds = MojangProfileResolver.DEFAULT_COOLDOWN_SECONDS;
             if (manager.dailyPlaytimeTracker != null) {
                 manager.dailyPlaytimeTracker.setDailyResetTime(manager.dailyResetTime);
             } else {
@@ -0,0 +1,109 @@
+package net.craftmaster08.cm08statscore.config;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraft.ChatFormatting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How playtime from a number of hours up to the next tier is colored on the leaderboard.
+ *
+ * @param minHours    The first whole hour of the tier, from 0 to {@link HourTierTable#MAX_HOURS}.
+ * @param hoursColors The color of the hours; with several colors, each character gets the next one.
+ * @param hColor      The color of the trailing "h".
+ * @param symbol      A symbol shown before the hours, or null for none.
+ * @param symbolColor The color of the symbol, or null if there is no symbol.
+ */
+public record HourTier(int minHours, List<ChatFormatting> hoursColors, ChatFormatting hColor, String symbol,
+                       ChatFormatting symbolColor) {
+    public HourTier {
+        if (minHours < 0 || minHours > HourTierTable.MAX_HOURS) {
+            throw new IllegalArgumentException("Tier start must be between 0 and " + HourTierTable.MAX_HOURS + " hours: " + minHours);
+        }
+        if (hoursColors == null || hoursColors.isEmpty()) {
+            throw new IllegalArgumentException("Tier at " + minHours + "h needs at least one hours color");
+        }
+        hoursColors = List.copyOf(hoursColors);
+        if (hColor == null) {
+            throw new IllegalArgumentException("Tier at " + minHours + "h needs an h color");
+        }
+        if (symbol != null && symbol.isEmpty()) {
+            symbol = null;
+        }
+        if (symbol == null) {
+            symbolColor = null;
+        } else if (symbolColor == null) {
+            symbolColor = hColor;
+        }
+    }
+
+    /**
+     * Creates a tier without a symbol.
+     *
+     * @param minHours    The first whole hour of the tier.
+     * @param hoursColors The color of the hours.
+     * @param hColor      The color of the trailing "h".
+     */
+    public HourTier(int minHours, List<ChatFormatting> hoursColors, ChatFormatting hColor) {
+        this(minHours, hoursColors, hColor, null, null);
+    }
+
+    /**
+     * Reads a tier from its statscore_config.json form.
+     *
+     * @param json The tier object.
+     * @return The tier.
+     * @throws IllegalArgumentException If a field is missing or names an unknown color.
+     */
+    public static HourTier fromJson(JsonObject json) {
+        if (!json.has("min_hours") || !json.has("hours_colors") || !json.has("h_color")) {
+            throw new IllegalArgumentException("Tier needs min_hours, hours_colors and h_color: " + json);
+        }
+        List<ChatFormatting> hoursColors = new ArrayList<>();
+        for (JsonElement color : json.getAsJsonArray("hours_colors")) {
+            hoursColors.add(parseColor(color.getAsString()));
+        }
+        String symbol = json.has("symbol") ? json.get("symbol").getAsString() : null;
+        ChatFormatting symbolColor = json.has("symbol_color") ? parseColor(json.get("symbol_color").getAsString()) : null;
+        return new HourTier(json.get("min_hours").getAsInt(), hoursColors, parseColor(json.get("h_color").getAsString()),
+                symbol, symbolColor);
+    }
+
+    /**
+     * Writes the tier in its statscore_config.json form.
+     *
+     * @return The tier object.
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("min_hours", minHours);
+        JsonArray colors = new JsonArray();
+        hoursColors.forEach(color -> colors.add(color.getName().toUpperCase(Locale.ROOT)));
+        json.add("hours_colors", colors);
+        json.addProperty("h_color", hColor.getName().toUpperCase(Locale.ROOT));
+        if (symbol != null) {
+            json.addProperty("symbol", symbol);
+            json.addProperty("symbol_color", symbolColor.getName().toUpperCase(Locale.ROOT));
+        }
+        return json;
+    }
+
+    /**
+     * Parses a Minecraft color name, ignoring case.
+     *
+     * @param name The color name.
+     * @return The color.
+     * @throws IllegalArgumentException If the name is not a Minecraft color.
+     */
+    public static ChatFormatting parseColor(String name) {
+        ChatFormatting color = ChatFormatting.getByName(name.toUpperCase(Locale.ROOT));
+        if (color == null || !color.isColor()) {
+            throw new IllegalArgumentException("Invalid Minecraft color: " + name);
+        }
+        return color;
+    }
+}
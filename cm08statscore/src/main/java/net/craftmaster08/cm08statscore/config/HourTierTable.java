@@ -0,0 +1,129 @@
+package net.craftmaster08.cm08statscore.config;
+
+import net.minecraft.ChatFormatting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * The configured hour tiers, compiled into a table with one entry per whole hour up to {@link #MAX_HOURS}.
+ * Looking up the tier of a playtime is a single array access and never allocates; playtime past the table uses the
+ * last tier. Tables are immutable, so a table can be swapped out while leaderboards are being rendered.
+ */
+public final class HourTierTable {
+    public static final int MAX_HOURS = 10_000;
+
+    /**
+     * The tiers the leaderboard has always used: one color per hundred hours, then symbols from 1000 hours on.
+     */
+    public static final List<HourTier> DEFAULT_TIERS = List.of(
+            new HourTier(0, List.of(ChatFormatting.GRAY), ChatFormatting.GRAY),
+            new HourTier(100, List.of(ChatFormatting.WHITE), ChatFormatting.WHITE),
+            new HourTier(200, List.of(ChatFormatting.GOLD), ChatFormatting.GOLD),
+            new HourTier(300, List.of(ChatFormatting.AQUA), ChatFormatting.AQUA),
+            new HourTier(400, List.of(ChatFormatting.DARK_GREEN), ChatFormatting.DARK_GREEN),
+            new HourTier(500, List.of(ChatFormatting.DARK_AQUA), ChatFormatting.DARK_AQUA),
+            new HourTier(600, List.of(ChatFormatting.DARK_RED), ChatFormatting.DARK_RED),
+            new HourTier(700, List.of(ChatFormatting.LIGHT_PURPLE), ChatFormatting.LIGHT_PURPLE),
+            new HourTier(800, List.of(ChatFormatting.BLUE), ChatFormatting.BLUE),
+            new HourTier(900, List.of(ChatFormatting.DARK_PURPLE), ChatFormatting.DARK_PURPLE),
+            new HourTier(1000, List.of(ChatFormatting.GOLD, ChatFormatting.YELLOW, ChatFormatting.GREEN, ChatFormatting.AQUA),
+                    ChatFormatting.LIGHT_PURPLE, "✫", ChatFormatting.RED),
+            new HourTier(1100, List.of(ChatFormatting.WHITE), ChatFormatting.GRAY, "✪", ChatFormatting.GRAY),
+            new HourTier(1200, List.of(ChatFormatting.YELLOW), ChatFormatting.GRAY, "✪", ChatFormatting.GOLD),
+            new HourTier(1300, List.of(ChatFormatting.AQUA), ChatFormatting.GRAY, "✪", ChatFormatting.DARK_AQUA),
+            new HourTier(1400, List.of(ChatFormatting.GREEN), ChatFormatting.GRAY, "✪", ChatFormatting.DARK_GREEN),
+            new HourTier(1500, List.of(ChatFormatting.DARK_AQUA), ChatFormatting.GRAY, "✪", ChatFormatting.BLUE),
+            new HourTier(1600, List.of(ChatFormatting.RED), ChatFormatting.GRAY, "✪", ChatFormatting.DARK_RED),
+            new HourTier(1700, List.of(ChatFormatting.LIGHT_PURPLE), ChatFormatting.GRAY, "✪", ChatFormatting.DARK_PURPLE),
+            new HourTier(1800, List.of(ChatFormatting.BLUE), ChatFormatting.GRAY, "✪", ChatFormatting.DARK_BLUE),
+            new HourTier(1900, List.of(ChatFormatting.DARK_PURPLE), ChatFormatting.GRAY, "✪", ChatFormatting.DARK_GRAY),
+            new HourTier(2000, List.of(ChatFormatting.GRAY, ChatFormatting.WHITE, ChatFormatting.WHITE, ChatFormatting.GRAY),
+                    ChatFormatting.DARK_GRAY, "✪", ChatFormatting.GRAY)
+    );
+
+    public static final HourTierTable DEFAULT = compile(DEFAULT_TIERS);
+
+    private final List<HourTier> tiers;
+    private final HourTier[] byHour;
+
+    private HourTierTable(List<HourTier> tiers) {
+        this.tiers = tiers;
+        this.byHour = new HourTier[MAX_HOURS + 1];
+        for (int i = 0; i < tiers.size(); i++) {
+            int end = i + 1 < tiers.size() ? tiers.get(i + 1).minHours() : byHour.length;
+            Arrays.fill(byHour, tiers.get(i).minHours(), end, tiers.get(i));
+        }
+    }
+
+    /**
+     * Compiles tier definitions into a lookup table. When two tiers start at the same hour, the later one wins.
+     *
+     * @param tiers The tiers, in any order.
+     * @return The compiled table.
+     * @throws IllegalArgumentException If no tier starts at 0 hours.
+     */
+    public static HourTierTable compile(Collection<HourTier> tiers) {
+        TreeMap<Integer, HourTier> byStart = new TreeMap<>();
+        tiers.forEach(tier -> byStart.put(tier.minHours(), tier));
+        if (!byStart.containsKey(0)) {
+            throw new IllegalArgumentException("A tier must start at 0 hours");
+        }
+        return new HourTierTable(List.copyOf(byStart.values()));
+    }
+
+    /**
+     * Gets the tier a playtime falls into.
+     *
+     * @param hours The playtime in hours.
+     * @return The tier whose range contains the whole hours of the playtime.
+     */
+    public HourTier tierFor(double hours) {
+        if (!(hours > 0)) {
+            return byHour[0];
+        }
+        return hours >= MAX_HOURS ? byHour[MAX_HOURS] : byHour[(int) hours];
+    }
+
+    /**
+     * Gets the tier definitions.
+     *
+     * @return An immutable list of the tiers, ordered by start hour.
+     */
+    public List<HourTier> getTiers() {
+        return tiers;
+    }
+
+    /**
+     * Creates a table with a tier added, replacing any tier that starts at the same hour.
+     *
+     * @param tier The tier to add.
+     * @return The new table.
+     */
+    public HourTierTable with(HourTier tier) {
+        List<HourTier> updated = new ArrayList<>(tiers);
+        updated.add(tier);
+        return compile(updated);
+    }
+
+    /**
+     * Creates a table without the tier that starts at the given hour.
+     *
+     * @param minHours The start hour of the tier to remove.
+     * @return The new table.
+     * @throws IllegalArgumentException If no tier starts there, or it is the tier at 0 hours.
+     */
+    public HourTierTable without(int minHours) {
+        if (minHours == 0) {
+            throw new IllegalArgumentException("The tier at 0 hours cannot be removed");
+        }
+        List<HourTier> updated = new ArrayList<>(tiers);
+        if (!updated.removeIf(tier -> tier.minHours() == minHours)) {
+            throw new IllegalArgumentException("No tier starts at " + minHours + "h");
+        }
+        return compile(updated);
+    }
+}
@@ -0,0 +1,132 @@
+package net.craftmaster08.cm08statscore.playtime;
+
+import net.craftmaster08.statsengine.playtime.PlaytimeRankIndex;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.stats.Stat;
+import net.minecraft.stats.Stats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Samples the play_time of all online players from the server tick, feeding the daily playtime tracker and the live
+ * rank index. Every interval the online players are snapshotted and split into slices that run on evenly spaced
+ * ticks, so no single tick samples everyone. The cost of each interval is measured and kept for
+ * {@code /statsconfig sampler}.
+ */
+public class PlaytimeSampler {
+    private static final Logger LOGGER = LogManager.getLogger(PlaytimeSampler.class);
+
+    /**
+     * The cost of sampling every online player once.
+     *
+     * @param players           The number of players sampled.
+     * @param slices            The number of ticks the work was spread over.
+     * @param elapsedNanos      The time spent sampling, summed over all slices.
+     * @param slowestSliceNanos The time spent on the slowest tick.
+     */
+    public record IntervalCost(int players, int slices, long elapsedNanos, long slowestSliceNanos) {}
+
+    private final DailyPlaytimeTracker dailyPlaytimeTracker;
+    private final PlaytimeRankIndex rankIndex;
+    private final Stat<?> playTimeStat;
+
+    private int tickInInterval;
+    private int nextSlice;
+    private int slices;
+    private ServerPlayer[] players = new ServerPlayer[0];
+    private long intervalNanos;
+    private long slowestSliceNanos;
+    private volatile IntervalCost lastInterval;
+
+    /**
+     * Creates a sampler.
+     *
+     * @param dailyPlaytimeTracker The daily playtime tracker to update, or null.
+     * @param rankIndex            The rank index to update, or null.
+     */
+    public PlaytimeSampler(DailyPlaytimeTracker dailyPlaytimeTracker, PlaytimeRankIndex rankIndex) {
+        this.dailyPlaytimeTracker = dailyPlaytimeTracker;
+        this.rankIndex = rankIndex;
+        this.playTimeStat = Stats.CUSTOM.get(Stats.PLAY_TIME);
+    }
+
+    /**
+     * Runs the slices that are due on this tick. Called once per server tick, on the server thread.
+     *
+     * @param server        The server.
+     * @param intervalTicks The number of ticks between two samples of the same player.
+     * @param sliceCount    The number of ticks to spread each interval over; at most one per tick of the interval.
+     */
+    public void tick(MinecraftServer server, int intervalTicks, int sliceCount) {
+        int interval = Math.max(1, intervalTicks);
+        if (tickInInterval >= interval) {
+            tickInInterval = 0;
+        }
+        if (tickInInterval == 0) {
+            List<ServerPlayer> online = server.getPlayerList().getPlayers();
+            players = online.toArray(players.length == online.size() ? players : new ServerPlayer[online.size()]);
+            slices = Math.max(1, Math.min(sliceCount, interval));
+            nextSlice = 0;
+            intervalNanos = 0;
+            slowestSliceNanos = 0;
+        }
+
+        // Slice s starts on tick s * interval / slices of the interval
+        while (nextSlice < slices && (long) nextSlice * interval / slices == tickInInterval) {
+            runSlice(nextSlice);
+            nextSlice++;
+            if (nextSlice == slices) {
+                finishInterval();
+            }
+        }
+        tickInInterval++;
+    }
+
+    private void runSlice(int slice) {
+        long start = System.nanoTime();
+        int from = (int) ((long) slice * players.length / slices);
+        int to = (int) ((long) (slice + 1) * players.length / slices);
+        for (int i = from; i < to; i++) {
+            ServerPlayer player = players[i];
+            // Players who left were settled on logout
+            if (!player.hasDisconnected()) {
+                sample(player);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        intervalNanos += elapsed;
+        slowestSliceNanos = Math.max(slowestSliceNanos, elapsed);
+    }
+
+    private void sample(ServerPlayer player) {
+        long ticks = player.getStats().getValue(playTimeStat);
+        if (dailyPlaytimeTracker != null) {
+            dailyPlaytimeTracker.update(player.getUUID(), ticks);
+        }
+        if (rankIndex != null) {
+            rankIndex.update(player.getUUID(), player.getGameProfile().getName(), ticks);
+        }
+    }
+
+    private void finishInterval() {
+        IntervalCost cost = new IntervalCost(players.length, slices, intervalNanos, slowestSliceNanos);
+        lastInterval = cost;
+        LOGGER.debug("Sampled {} players in {} µs over {} ticks (slowest tick {} µs)",
+                cost.players(), cost.elapsedNanos() / 1000, cost.slices(), cost.slowestSliceNanos() / 1000);
+        // Drop the references, so players who left can be collected before the next interval
+        Arrays.fill(players, null);
+    }
+
+    /**
+     * Gets the cost of the last completed interval.
+     *
+     * @return The cost, or null if no interval has completed yet.
+     */
+    public IntervalCost getLastInterval() {
+        return lastInterval;
+    }
+}
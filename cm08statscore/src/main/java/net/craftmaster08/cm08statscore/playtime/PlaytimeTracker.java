@@ -1,163 +1,158 @@
 package net.craftmaster08.cm08statscore.playtime;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import net.craftmaster08.cm08statscore.StatsCore;
 import net.craftmaster08.cm08statscore.cache.PlaytimeUsernameCache;
+import net.craftmaster08.cm08statscore.cache.UnresolvedUsernameCache;
+import net.craftmaster08.cm08statscore.config.ConfigManager;
+import net.craftmaster08.statsengine.LivePlayerTicks;
+import net.craftmaster08.statsengine.ProfileCache;
+import net.craftmaster08.statsengine.StatsFileSource;
+import net.craftmaster08.statsengine.playtime.PlaytimeEngine;
+import net.craftmaster08.statsengine.playtime.PlaytimeEngine.LeaderboardPage;
+import net.craftmaster08.statsengine.playtime.PlaytimeEngine.PlayerPlaytime;
+import net.craftmaster08.statsengine.playtime.PlaytimeIndex;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.stats.Stats;
 import net.minecraft.world.level.storage.LevelResource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.util.*;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
- * Tracks and retrieves player playtime data for online and offline players.
+ * Tracks and retrieves player playtime data for online and offline players. Connects the {@link PlaytimeEngine} to
+ * the running server: its stats directory, its online players and its profile cache.
  */
 public class PlaytimeTracker {
     private static final Logger LOGGER = LogManager.getLogger(PlaytimeTracker.class);
-    public record PlayerPlaytime(String username, double playtime, UUID uuid) {}
 
     /**
      * Gets the overall playtime for all players, sorted by playtime in descending order.
+     * Must be called on the server thread.
      *
      * @param server The Minecraft server instance.
      * @return A list of player playtime records.
      */
     public static List<PlayerPlaytime> getOverallPlaytime(MinecraftServer server) {
-        return Stream.concat(
-                        getOnlinePlaytimes(server).stream(),
-                        getOfflinePlaytimes(server).stream()
-                ).sorted(Comparator.comparingDouble(PlayerPlaytime::playtime).reversed())
-                .toList();
+        return getOverallPlaytime(server, getOnlinePlaytimes(server));
     }
 
-    private static List<PlayerPlaytime> getOnlinePlaytimes(MinecraftServer server) {
-        return server.getPlayerList().getPlayers().stream()
-                .map(player -> new PlayerPlaytime(
-                        player.getName().getString(),
-                        player.getStats().getValue(Stats.CUSTOM.get(Stats.PLAY_TIME)) / 20.0 / 3600.0,
-                        player.getUUID()
-                ))
-                .toList();
+    /**
+     * Gets the overall playtime for all players from a snapshot of the online players, sorted by playtime in
+     * descending order. Safe to call off the server thread.
+     *
+     * @param server          The Minecraft server instance.
+     * @param onlinePlaytimes The online player snapshot from {@link #getOnlinePlaytimes(MinecraftServer)}.
+     * @return A list of player playtime records.
+     */
+    public static List<PlayerPlaytime> getOverallPlaytime(MinecraftServer server, List<PlayerPlaytime> onlinePlaytimes) {
+        return PlaytimeEngine.mergeOverall(onlinePlaytimes, getOfflinePlaytimes(server, onlinePlaytimes));
     }
 
-    private static List<PlayerPlaytime> getOfflinePlaytimes(MinecraftServer server) {
-        List<PlayerPlaytime> playtimes = new ArrayList<>();
-        File statsFolder = server.getWorldPath(LevelResource.PLAYER_STATS_DIR).toFile();
-        if (!statsFolder.exists() || !statsFolder.isDirectory()) {
-            return playtimes;
-        }
-
-        File[] statFiles = statsFolder.listFiles((dir, name) -> name.endsWith(".json"));
-        if (statFiles == null) {
-            return playtimes;
-        }
-
-        Set<UUID> onlineUUIDs = server.getPlayerList().getPlayers().stream()
-                .map(ServerPlayer::getUUID)
-                .collect(Collectors.toSet());
-
-        for (File statFile : statFiles) {
-            try {
-                String uuidString = statFile.getName().replace(".json", "");
-                UUID uuid = UUID.fromString(uuidString);
-
-                if (onlineUUIDs.contains(uuid)) {
-                    continue;
-                }
-
-                JsonObject statsJson;
-                try (FileReader reader = new FileReader(statFile)) {
-                    statsJson = JsonParser.parseReader(reader).getAsJsonObject();
-                }
-
-                JsonObject stats = statsJson.getAsJsonObject("stats");
-                if (stats != null) {
-                    JsonObject custom = stats.getAsJsonObject("minecraft:custom");
-                    if (custom != null) {
-                        JsonElement playTimeElement = custom.get("minecraft:play_time");
-                        if (playTimeElement != null) {
-                            double hours = playTimeElement.getAsLong() / 20.0 / 3600.0;
-                            String username = UsernameResolver.resolve(server, uuid, uuidString);
-                            playtimes.add(new PlayerPlaytime(username, hours, uuid));
-                        }
-                    }
-                }
-            } catch (IOException | IllegalArgumentException e) {
-                LOGGER.error("Error reading stat file {}: {}", statFile.getName(), e.getMessage());
-            }
-        }
-
-        return playtimes;
+    /**
+     * Gets one page of the leaderboard without sorting every player. Safe to call off the server thread.
+     *
+     * @param server            The Minecraft server instance.
+     * @param onlinePlaytimes   The online player snapshot from {@link #getOnlinePlaytimes(MinecraftServer)}.
+     * @param excludedUsernames Usernames that are not ranked, such as blacklisted players.
+     * @param offset            The number of ranked players to skip.
+     * @param limit             The maximum number of players on the page.
+     * @return The requested page; its entries are empty if the offset is past the last player.
+     * @see PlaytimeEngine#selectPage
+     */
+    public static LeaderboardPage getTopPlaytimes(MinecraftServer server, List<PlayerPlaytime> onlinePlaytimes,
+                                                  Set<String> excludedUsernames, int offset, int limit) {
+        return PlaytimeEngine.selectPage(onlinePlaytimes, getOfflinePlaytimes(server, onlinePlaytimes),
+                excludedUsernames, offset, limit);
     }
 
     /**
-     * Resolves usernames for player UUIDs using multiple sources.
+     * Scans every stats file into the playtime index and the rank index, so ranks are right before anyone runs
+     * /playtime. Safe to call off the server thread; online players are kept current by the sampler afterwards.
+     *
+     * @param server The Minecraft server instance.
      */
-    private interface UsernameResolver {
-        static String resolve(MinecraftServer server, UUID uuid, String uuidString) {
-            // Try server profile cache
-            String username = server.getProfileCache()
-                    .get(uuid)
-                    .map(profile -> {
-                        String name = profile.getName();
-                        if (name == null || name.isEmpty()) {
-                            LOGGER.warn("Profile cache returned null/empty name for UUID: {}", uuidString);
-                            return null;
-                        }
-                        return name;
-                    })
-                    .orElse(null);
+    public static void seedRankIndex(MinecraftServer server) {
+        List<PlayerPlaytime> offline = getOfflinePlaytimes(server, List.of());
+        LOGGER.info("Seeded playtime rank index with {} players", offline.size());
+    }
 
-            if (username != null) {
-                return username;
-            }
+    /**
+     * Gets the name shown for a player whose username no source knows.
+     *
+     * @param uuid The player's UUID.
+     * @return A placeholder name derived from the UUID.
+     */
+    public static String fallbackUsername(UUID uuid) {
+        return PlaytimeEngine.fallbackName(uuid);
+    }
 
-            // Try custom cache
-            PlaytimeUsernameCache cache = PlaytimeUsernameCache.getInstance(server);
-            username = cache.getUsername(uuid);
-            if (username != null) {
-                return username;
-            }
+    /**
+     * Snapshots the playtime of all online players. Must be called on the server thread.
+     *
+     * @param server The Minecraft server instance.
+     * @return A list of player playtime records for online players.
+     */
+    public static List<PlayerPlaytime> getOnlinePlaytimes(MinecraftServer server) {
+        return PlaytimeEngine.onlinePlaytimes(livePlayers(server));
+    }
 
-            // Fallback to Mojang API
-            try {
-                HttpClient client = HttpClient.newHttpClient();
-                String uuidNoHyphens = uuidString.replace("-", "");
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create("https://api.mojang.com/user/profile/" + uuidNoHyphens))
-                        .GET()
-                        .build();
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Reads the play_time stat of the server's online players.
+     *
+     * @param server The Minecraft server instance.
+     * @return The online players' live ticks; only to be read on the server thread.
+     */
+    public static LivePlayerTicks livePlayers(MinecraftServer server) {
+        return () -> server.getPlayerList().getPlayers().stream()
+                .map(player -> new LivePlayerTicks.LivePlayer(
+                        player.getUUID(),
+                        player.getName().getString(),
+                        player.getStats().getValue(Stats.CUSTOM.get(Stats.PLAY_TIME))
+                ))
+                .toList();
+    }
 
-                if (response.statusCode() == 200) {
-                    JsonObject json = JsonParser.parseString(response.body()).getAsJsonObject();
-                    username = json.get("name").getAsString();
-                    if (username != null && !username.isEmpty()) {
-                        cache.storeUsername(uuid, username);
-                        return username;
+    /**
+     * Looks up names in the server's profile cache (usercache.json).
+     *
+     * @param server The Minecraft server instance.
+     * @return The server's profile cache.
+     */
+    public static ProfileCache profileCache(MinecraftServer server) {
+        return uuid -> server.getProfileCache()
+                .get(uuid)
+                .map(profile -> {
+                    String name = profile.getName();
+                    if (name == null || name.isEmpty()) {
+                        LOGGER.warn("Profile cache returned null/empty name for UUID: {}", uuid);
+                        return null;
                     }
-                } else {
-                    LOGGER.warn("Mojang API request failed for UUID: {}, status: {}", uuidString, response.statusCode());
-                }
-            } catch (IOException | InterruptedException e) {
-                LOGGER.error("Error querying Mojang API for UUID: {}", uuidString, e);
-            }
+                    return name;
+                })
+                .orElse(null);
+    }
+
+    private static List<PlayerPlaytime> getOfflinePlaytimes(MinecraftServer server, List<PlayerPlaytime> onlinePlaytimes) {
+        Set<UUID> onlineUUIDs = onlinePlaytimes.stream()
+                .map(PlayerPlaytime::uuid)
+                .collect(Collectors.toSet());
 
-            // Final fallback
-            return "Unknown_" + uuidString.substring(0, 8);
+        PlaytimeIndex index = StatsCore.getPlaytimeIndex();
+        if (index == null) {
+            index = new PlaytimeIndex(null);
         }
+        ConfigManager config = StatsCore.getConfigManager();
+        int parallelism = config != null ? config.scanParallelism : 0;
+        ProfileCache profiles = profileCache(server);
+
+        return PlaytimeEngine.collectOfflinePlaytimes(
+                StatsFileSource.directory(server.getWorldPath(LevelResource.PLAYER_STATS_DIR)), onlineUUIDs, index,
+                StatsCore.getLoggedOutPlaytimes(), StatsCore.getRankIndex(), parallelism,
+                entries -> PlaytimeEngine.resolveMissing(entries, profiles, PlaytimeUsernameCache.getInstance(server),
+                        UnresolvedUsernameCache.getInstance(server)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package net.craftmaster08.playtimeleaderboard;
+
+import net.craftmaster08.cm08statscore.config.HourTierTable;
+import net.craftmaster08.statsengine.playtime.PlaytimeEngine;
+import net.craftmaster08.statsengine.playtime.SyntheticStats;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting one leaderboard page for players and for the console.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeaderboardFormatBenchmark {
+    @Param({"10", "50", "100"})
+    public int rows;
+
+    private List<PlaytimeEngine.PlayerPlaytime> page;
+    // The page with every playtime a displayed hundredth of an hour higher, so no row matches the row cache
+    private List<PlaytimeEngine.PlayerPlaytime> shiftedPage;
+    private Map<String, ChatFormatting> usernameColors;
+    private int requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        page = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            page.add(new PlaytimeEngine.PlayerPlaytime(SyntheticStats.username(i),
+                    SyntheticStats.playTimeTicks(random) / 20.0 / 3600.0, UUID.randomUUID()));
+        }
+        page.sort(Comparator.comparingDouble(PlaytimeEngine.PlayerPlaytime::playtime).reversed());
+        shiftedPage = page.stream()
+                .map(pt -> new PlaytimeEngine.PlayerPlaytime(pt.username(), pt.playtime() + 0.01, pt.uuid()))
+                .toList();
+        usernameColors = Map.of(page.get(0).username(), ChatFormatting.AQUA);
+    }
+
+    /**
+     * A repeated request for an unchanged page, served mostly from the row cache.
+     */
+    @Benchmark
+    public List<Component> formatPage() {
+        return new PlaytimeRunCommand.LeaderboardFormatter(page, 1, usernameColors, HourTierTable.DEFAULT, null)
+                .buildLeaderboard(null);
+    }
+
+    /**
+     * A page whose rows all changed since the last request.
+     */
+    @Benchmark
+    public List<Component> formatChangedPage() {
+        List<PlaytimeEngine.PlayerPlaytime> changed = (++requests & 1) == 0 ? page : shiftedPage;
+        return new PlaytimeRunCommand.LeaderboardFormatter(changed, 1, usernameColors, HourTierTable.DEFAULT, null)
+                .buildLeaderboard(null);
+    }
+
+    @Benchmark
+    public String renderPlainText() {
+        return PlaytimeRunCommand.PlainTextRenderer.render(page, 1, null);
+    }
+}
@@ -0,0 +1,94 @@
+package net.craftmaster08.statsengine.cache;
+
+import net.craftmaster08.statsengine.playtime.SyntheticStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Username cache lookups and writes. Writes are journaled on the cache's own thread, so these measure what the caller
+ * pays, including the occasional merge of the write overlay.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UsernameCacheBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int players;
+
+    private Path root;
+    private UsernameStore cache;
+    private UUID[] uuids;
+    private final StringBuilder text = new StringBuilder(32);
+    private int cursor;
+    private boolean renamed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("statscore-jmh");
+        cache = new UsernameStore(root.toFile());
+        uuids = new UUID[players];
+        Map<UUID, String> names = new HashMap<>();
+        for (int i = 0; i < players; i++) {
+            uuids[i] = UUID.randomUUID();
+            names.put(uuids[i], SyntheticStats.username(i));
+        }
+        cache.storeUsernames(names);
+        cache.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.close();
+        SyntheticStats.delete(root);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return cache.getUsername(next());
+    }
+
+    /**
+     * Decodes a name into a reused buffer instead of creating a String.
+     */
+    @Benchmark
+    public StringBuilder appendUsername() {
+        text.setLength(0);
+        cache.appendUsername(next(), text);
+        return text;
+    }
+
+    /**
+     * Stores the name a player already has, as on every login of a known player.
+     */
+    @Benchmark
+    public void storeUnchangedUsername() {
+        int index = cursor;
+        cache.storeUsername(next(), SyntheticStats.username(index));
+    }
+
+    /**
+     * Stores a changed name, which is journaled.
+     */
+    @Benchmark
+    public void storeChangedUsername() {
+        int index = cursor;
+        UUID uuid = next();
+        if (index == 0) {
+            renamed = !renamed;
+        }
+        cache.storeUsername(uuid, renamed ? "Renamed_" + index : SyntheticStats.username(index));
+    }
+
+    private UUID next() {
+        UUID uuid = uuids[cursor];
+        cursor = cursor + 1 == uuids.length ? 0 : cursor + 1;
+        return uuid;
+    }
+}
@@ -0,0 +1,54 @@
+package net.craftmaster08.statsengine.playtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily playtime accounting for every online player, as done from the player tick handler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DailyPlaytimeBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int onlinePlayers;
+
+    private Path root;
+    private DailyPlaytimeLedger tracker;
+    private UUID[] uuids;
+    private long[] ticks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("statscore-jmh");
+        tracker = new DailyPlaytimeLedger(root.resolve("playtime_daily.json"));
+        uuids = new UUID[onlinePlayers];
+        ticks = new long[onlinePlayers];
+        for (int i = 0; i < onlinePlayers; i++) {
+            uuids[i] = UUID.randomUUID();
+            ticks[i] = i * 1000L;
+            tracker.update(uuids[i], ticks[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticStats.delete(root);
+    }
+
+    /**
+     * Updates every online player once, each having played one more second.
+     */
+    @Benchmark
+    public void updateAllPlayers() {
+        for (int i = 0; i < uuids.length; i++) {
+            ticks[i] += 20;
+            tracker.update(uuids[i], ticks[i]);
+        }
+    }
+}
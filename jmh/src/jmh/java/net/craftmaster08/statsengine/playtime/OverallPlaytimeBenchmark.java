@@ -0,0 +1,91 @@
+package net.craftmaster08.statsengine.playtime;
+
+import net.craftmaster08.statsengine.StatsFileSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembling the full playtime list behind getOverallPlaytime: scan, name lookup, rank index upkeep and sorting.
+ * Names come from an in-memory map, standing in for the username caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OverallPlaytimeBenchmark {
+    private static final int ONLINE_PLAYERS = 50;
+
+    @Param({"1000", "10000", "40000"})
+    public int players;
+
+    private Path root;
+    private StatsFileSource statsFiles;
+    private Map<UUID, String> names;
+    private List<PlaytimeEngine.PlayerPlaytime> online;
+    private Set<UUID> onlineUUIDs;
+    private PlaytimeIndex index;
+    private PlaytimeRankIndex rankIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("statscore-jmh");
+        Path statsDir = root.resolve("stats");
+        statsFiles = StatsFileSource.directory(statsDir);
+        List<UUID> uuids = SyntheticStats.generate(statsDir, players, 0.01, 42);
+        names = new HashMap<>();
+        for (int i = 0; i < uuids.size(); i++) {
+            names.put(uuids.get(i), SyntheticStats.username(i));
+        }
+
+        Random random = new Random(7);
+        online = new ArrayList<>();
+        for (UUID uuid : uuids.subList(0, Math.min(ONLINE_PLAYERS, uuids.size()))) {
+            online.add(new PlaytimeEngine.PlayerPlaytime(names.get(uuid),
+                    SyntheticStats.playTimeTicks(random) / 20.0 / 3600.0, uuid));
+        }
+        onlineUUIDs = new HashSet<>(uuids.subList(0, online.size()));
+
+        index = new PlaytimeIndex(null);
+        rankIndex = new PlaytimeRankIndex();
+        overallPlaytime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticStats.delete(root);
+    }
+
+    /**
+     * A leaderboard request in steady state: the index is current and every name is known.
+     */
+    @Benchmark
+    public List<PlaytimeEngine.PlayerPlaytime> overallPlaytime() {
+        List<PlaytimeEngine.PlayerPlaytime> offline = PlaytimeEngine.collectOfflinePlaytimes(statsFiles, onlineUUIDs,
+                index, null, rankIndex, 0, this::resolveNames);
+        return PlaytimeEngine.mergeOverall(online, offline);
+    }
+
+    /**
+     * The first leaderboard request after startup: nothing is indexed, so every file is parsed and named.
+     */
+    @Benchmark
+    public List<PlaytimeEngine.PlayerPlaytime> overallPlaytimeCold() {
+        List<PlaytimeEngine.PlayerPlaytime> offline = PlaytimeEngine.collectOfflinePlaytimes(statsFiles, onlineUUIDs,
+                new PlaytimeIndex(null), null, new PlaytimeRankIndex(), 0, this::resolveNames);
+        return PlaytimeEngine.mergeOverall(online, offline);
+    }
+
+    private Map<UUID, String> resolveNames(List<PlaytimeIndex.Entry> entries) {
+        Map<UUID, String> resolved = new HashMap<>();
+        for (PlaytimeIndex.Entry entry : entries) {
+            if (entry.username() == null && entry.playTimeTicks() >= 0) {
+                resolved.put(entry.uuid(), names.get(entry.uuid()));
+            }
+        }
+        return resolved;
+    }
+}
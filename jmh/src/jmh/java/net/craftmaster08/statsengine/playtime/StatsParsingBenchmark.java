@@ -0,0 +1,76 @@
+package net.craftmaster08.statsengine.playtime;
+
+import net.craftmaster08.statsengine.StatsFileSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading play_time from offline players' stats files, per file and as whole directory scans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatsParsingBenchmark {
+    @Param({"1000", "10000", "40000"})
+    public int players;
+
+    private Path root;
+    private Path statsDir;
+    private StatsFileSource statsFiles;
+    private List<Path> files;
+    private PlaytimeIndex warmIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("statscore-jmh");
+        statsDir = root.resolve("stats");
+        statsFiles = StatsFileSource.directory(statsDir);
+        List<UUID> uuids = SyntheticStats.generate(statsDir, players, 0.0, 42);
+        files = new ArrayList<>(uuids.size());
+        uuids.forEach(uuid -> files.add(statsDir.resolve(uuid + ".json")));
+
+        warmIndex = new PlaytimeIndex(null);
+        StatsDirectoryScanner.scan(statsFiles, Set.of(), null, warmIndex, 0).updated().forEach(warmIndex::put);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticStats.delete(root);
+    }
+
+    /**
+     * Parses every file on the calling thread with the streaming extractor.
+     */
+    @Benchmark
+    public long parseAllFiles() throws IOException {
+        long total = 0;
+        for (Path file : files) {
+            total += PlaytimeStatExtractor.readPlayTimeTicks(file);
+        }
+        return total;
+    }
+
+    /**
+     * Scans the directory with an empty index, so every file is parsed, as on the first /playtime after startup.
+     */
+    @Benchmark
+    public StatsDirectoryScanner.ScanResult coldScan() {
+        return StatsDirectoryScanner.scan(statsFiles, Set.of(), null, new PlaytimeIndex(null), 0);
+    }
+
+    /**
+     * Scans the directory with an up-to-date index, so only file metadata is read.
+     */
+    @Benchmark
+    public StatsDirectoryScanner.ScanResult warmScan() {
+        return StatsDirectoryScanner.scan(statsFiles, Set.of(), null, warmIndex, 0);
+    }
+}
@@ -0,0 +1,191 @@
+package net.craftmaster08.statsengine.playtime;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Generates world stats directories for benchmarks. Files look like vanilla 1.20.1 stats files: up to two
+ * hundred mined, used, picked up, crafted and custom counters (1-5 KB), with the custom section at a random position
+ * so the streaming parser has to skip a realistic amount of JSON before play_time. The StatsCore files that go with
+ * a world, playtime_usernames.json and playtime_daily.json, can be generated for the same players.
+ */
+public final class SyntheticStats {
+    private static final String[] CUSTOM_STATS = {
+            "minecraft:jump", "minecraft:walk_one_cm", "minecraft:sprint_one_cm", "minecraft:crouch_one_cm",
+            "minecraft:fly_one_cm", "minecraft:swim_one_cm", "minecraft:fall_one_cm", "minecraft:damage_taken",
+            "minecraft:damage_dealt", "minecraft:deaths", "minecraft:mob_kills", "minecraft:leave_game",
+            "minecraft:time_since_death", "minecraft:time_since_rest", "minecraft:sneak_time", "minecraft:total_world_time",
+            "minecraft:open_chest", "minecraft:interact_with_crafting_table", "minecraft:sleep_in_bed", "minecraft:boat_one_cm"
+    };
+    private static final String[] ITEMS = {
+            "stone", "dirt", "grass_block", "cobblestone", "oak_log", "spruce_log", "birch_log", "oak_planks", "sand",
+            "gravel", "coal_ore", "iron_ore", "deepslate", "deepslate_iron_ore", "diamond_ore", "netherrack", "torch",
+            "crafting_table", "furnace", "chest", "oak_leaves", "glass", "white_wool", "bread", "cooked_beef",
+            "iron_pickaxe", "diamond_pickaxe", "iron_sword", "bow", "arrow", "shield", "water_bucket", "lava_bucket",
+            "redstone", "hopper", "rail", "powered_rail", "obsidian", "end_stone", "ender_pearl", "blaze_rod",
+            "andesite", "diorite", "granite", "tuff", "calcite", "copper_ore", "raw_iron", "raw_copper", "kelp"
+    };
+
+    private SyntheticStats() {
+    }
+
+    /**
+     * Fills a stats directory with one file per player.
+     *
+     * @param statsDir        The directory to create the files in.
+     * @param players         The number of players.
+     * @param corruptFraction The share of files that are truncated mid-way, as after a crash.
+     * @param seed            The random seed, so runs are comparable.
+     * @return The players' UUIDs, in generation order.
+     */
+    public static List<UUID> generate(Path statsDir, int players, double corruptFraction, long seed) {
+        Random random = new Random(seed);
+        List<UUID> uuids = new ArrayList<>(players);
+        try {
+            Files.createDirectories(statsDir);
+            for (int i = 0; i < players; i++) {
+                UUID uuid = new UUID(random.nextLong() & ~0xF000L | 0x4000L, random.nextLong() & ~(3L << 62) | (1L << 63));
+                String json = statsJson(random, playTimeTicks(random));
+                if (random.nextDouble() < corruptFraction) {
+                    json = json.substring(0, json.length() / 2);
+                }
+                Files.writeString(statsDir.resolve(uuid + ".json"), json, StandardCharsets.UTF_8);
+                uuids.add(uuid);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return uuids;
+    }
+
+    /**
+     * Writes a username cache snapshot naming the generated players, as UsernameStore stores it.
+     *
+     * @param directory    The directory to write playtime_usernames.json to.
+     * @param uuids        The players' UUIDs, in generation order.
+     * @param missingShare The share of players left out, so their names cannot be resolved offline.
+     * @param seed         The random seed.
+     */
+    public static void writeUsernameCache(Path directory, List<UUID> uuids, double missingShare, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < uuids.size(); i++) {
+            if (random.nextDouble() < missingShare) {
+                continue;
+            }
+            json.append(json.length() == 1 ? "\n" : ",\n").append("  \"").append(uuids.get(i)).append("\": \"")
+                    .append(username(i)).append('"');
+        }
+        write(directory.resolve("playtime_usernames.json"), json.append("\n}").toString());
+    }
+
+    /**
+     * Writes daily playtimes for the generated players, as DailyPlaytimeLedger stores them.
+     *
+     * @param file        The playtime_daily.json file.
+     * @param uuids       The players' UUIDs, in generation order.
+     * @param activeShare The share of players who played today.
+     * @param seed        The random seed.
+     */
+    public static void writeDailyPlaytimes(Path file, List<UUID> uuids, double activeShare, long seed) {
+        Random random = new Random(seed);
+        StringBuilder json = new StringBuilder("{\n  \"daily_ticks\": {");
+        boolean first = true;
+        for (UUID uuid : uuids) {
+            if (random.nextDouble() < activeShare) {
+                json.append(first ? "\n" : ",\n").append("    \"").append(uuid).append("\": ")
+                        .append(random.nextInt(8 * 3600 * 20));
+                first = false;
+            }
+        }
+        json.append("\n  },\n  \"last_reset_check\": \"").append(Instant.now()).append("\"\n}");
+        write(file, json.toString());
+    }
+
+    /**
+     * Gets a player name for a generated player.
+     *
+     * @param index The player's position in generation order.
+     * @return A valid Minecraft username.
+     */
+    public static String username(int index) {
+        return "Player_" + Integer.toString(index, 36);
+    }
+
+    /**
+     * Draws a playtime: most players stay a few hours, a long tail plays thousands.
+     *
+     * @param random The random source.
+     * @return The play_time stat in ticks.
+     */
+    public static long playTimeTicks(Random random) {
+        double hours = Math.min(9_000, Math.exp(random.nextGaussian() * 1.8 + 2.5));
+        return (long) (hours * 3600 * 20);
+    }
+
+    /**
+     * Deletes a generated directory tree.
+     *
+     * @param root The directory.
+     */
+    public static void delete(Path root) {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(Path file, String content) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String statsJson(Random random, long playTimeTicks) {
+        List<String> sections = new ArrayList<>();
+        sections.add(counters("minecraft:mined", random, 20 + random.nextInt(60)));
+        sections.add(counters("minecraft:used", random, 10 + random.nextInt(50)));
+        sections.add(counters("minecraft:picked_up", random, 10 + random.nextInt(40)));
+        sections.add(counters("minecraft:crafted", random, 5 + random.nextInt(30)));
+
+        StringBuilder custom = new StringBuilder("\"minecraft:custom\":{");
+        List<String> customStats = new ArrayList<>(Arrays.asList(CUSTOM_STATS));
+        customStats.add("minecraft:play_time");
+        Collections.shuffle(customStats, random);
+        for (int i = 0; i < customStats.size(); i++) {
+            String stat = customStats.get(i);
+            long value = stat.equals("minecraft:play_time") ? playTimeTicks : random.nextInt(5_000_000);
+            custom.append(i == 0 ? "" : ",").append('"').append(stat).append("\":").append(value);
+        }
+        custom.append('}');
+        sections.add(random.nextInt(sections.size() + 1), custom.toString());
+
+        return "{\"stats\":{" + String.join(",", sections) + "},\"DataVersion\":3465}";
+    }
+
+    private static String counters(String category, Random random, int count) {
+        StringBuilder json = new StringBuilder().append('"').append(category).append("\":{");
+        Set<String> used = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            String item = ITEMS[random.nextInt(ITEMS.length)];
+            if (used.add(item)) {
+                json.append(used.size() == 1 ? "" : ",").append("\"minecraft:").append(item).append("\":")
+                        .append(1 + random.nextInt(20_000));
+            }
+        }
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,277 @@
+package net.craftmaster08.playtimeleaderboard;
+
+import net.craftmaster08.cm08statscore.config.ConfigManager;
+import net.craftmaster08.cm08statscore.config.HourTierTable;
+import net.craftmaster08.statsengine.cache.UsernameStore;
+import net.craftmaster08.statsengine.playtime.DailyPlaytimeLedger;
+import net.craftmaster08.statsengine.playtime.PlaytimeEngine;
+import net.craftmaster08.statsengine.playtime.ScalePipeline;
+import net.craftmaster08.statsengine.playtime.SyntheticStats;
+import io.netty.buffer.Unpooled;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.protocol.game.ClientboundSystemChatPacket;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+
+/**
+ * Runs leaderboard requests against synthetic worlds and checks them against time and allocation budgets, so
+ * regressions show up before a release reaches a large server. Each world has a stats directory with some corrupt
+ * files, a username cache that misses some players and a daily playtime file. Nothing is looked up online.
+ *
+ * <p>Every world size is checked twice: the cold request right after startup, which parses every stats file, and
+ * warm requests with the playtime index current. Wall time is the median of the warm requests and allocation their
+ * mean; allocation is counted on every thread, so parsing on the scanner pool is included.
+ *
+ * <p>On the first world, a board of {@code output.rows} rows is also sent through the packet encoder in every output
+ * mode, counting packets and encoded bytes with and without the server's default compression. Chunked output must
+ * send fewer packets than one message per line and no more compressed bytes.
+ *
+ * <p>Usage: {@code ScaleCheck <budgets file> <work directory> [player counts]}. Exits with status 1 if a budget is
+ * exceeded.
+ */
+public final class ScaleCheck {
+    private static final int PAGE_SIZE = ConfigManager.DEFAULT_LEADERBOARD_PAGE_SIZE;
+    private static final double CORRUPT_SHARE = 0.01;
+    private static final double UNNAMED_SHARE = 0.02;
+    private static final double ACTIVE_TODAY_SHARE = 0.1;
+    private static final int WARMUP_REQUESTS = 5;
+    private static final long SEED = 42;
+    // ClientboundSystemChatPacket in the 1.20.1 play protocol; any id below 128 is a one byte VarInt
+    private static final int SYSTEM_CHAT_PACKET_ID = 0x64;
+    // The default network-compression-threshold of server.properties
+    private static final int COMPRESSION_THRESHOLD = 256;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * The cost of one request.
+     *
+     * @param wallNanos      The wall time.
+     * @param allocatedBytes The bytes allocated on all threads.
+     */
+    private record Measurement(long wallNanos, long allocatedBytes) {}
+
+    /**
+     * What sending a board costs on the connection.
+     *
+     * @param packets         The number of packets.
+     * @param encodedBytes    The framed packets without compression.
+     * @param compressedBytes The framed packets with the default compression threshold.
+     */
+    private record OutputSize(int packets, long encodedBytes, long compressedBytes) {}
+
+    // Keeps the formatted leaderboards reachable, so no request can be optimized away
+    private static volatile Object sink;
+
+    private ScaleCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ScaleCheck <budgets file> <work directory> [player counts]");
+            System.exit(2);
+        }
+        Properties budgets = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            budgets.load(reader);
+        }
+        Path workDir = Path.of(args[1]);
+        String playerCounts = args.length > 2 ? args[2] : budgets.getProperty("players", "1000,10000,100000");
+        int requests = Integer.parseInt(budgets.getProperty("requests", "20"));
+        if (!THREADS.isThreadAllocatedMemoryEnabled()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        int outputRows = Integer.parseInt(budgets.getProperty("output.rows", "300"));
+        List<String> failures = new ArrayList<>();
+        for (String count : playerCounts.split(",")) {
+            int players = Integer.parseInt(count.trim());
+            Path root = workDir.resolve(players + "-players");
+            try {
+                check(players, root, requests, budgets, failures, outputRows);
+                outputRows = 0;
+            } finally {
+                SyntheticStats.delete(root);
+            }
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("All leaderboard requests within budget");
+            System.exit(0);
+        }
+        System.out.println("Budgets exceeded:");
+        failures.forEach(failure -> System.out.println("  " + failure));
+        System.exit(1);
+    }
+
+    private static void check(int players, Path root, int requests, Properties budgets, List<String> failures,
+                              int outputRows) {
+        System.out.printf("%d players: generating world in %s%n", players, root);
+        Path worldDir = root.resolve("world");
+        List<UUID> uuids = SyntheticStats.generate(worldDir.resolve("stats"), players, CORRUPT_SHARE, SEED);
+        SyntheticStats.writeUsernameCache(root, uuids, UNNAMED_SHARE, SEED);
+        SyntheticStats.writeDailyPlaytimes(worldDir.resolve("playtime_daily.json"), uuids, ACTIVE_TODAY_SHARE, SEED);
+
+        long start = System.nanoTime();
+        UsernameStore usernameCache = new UsernameStore(root.toFile());
+        DailyPlaytimeLedger dailyTracker = new DailyPlaytimeLedger(worldDir.resolve("playtime_daily.json"));
+        System.out.printf("%d players: loaded username cache and daily playtimes in %d ms%n",
+                players, (System.nanoTime() - start) / 1_000_000);
+
+        try {
+            ScalePipeline pipeline = new ScalePipeline(worldDir.resolve("stats"), usernameCache::getUsername);
+            Measurement cold = measure(() -> request(pipeline, dailyTracker));
+            report(players, "cold", cold, budgets, failures);
+
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                measure(() -> request(pipeline, dailyTracker));
+            }
+            long[] wallNanos = new long[requests];
+            long allocatedBytes = 0;
+            for (int i = 0; i < requests; i++) {
+                Measurement warm = measure(() -> request(pipeline, dailyTracker));
+                wallNanos[i] = warm.wallNanos();
+                allocatedBytes += warm.allocatedBytes();
+            }
+            Arrays.sort(wallNanos);
+            report(players, "warm", new Measurement(wallNanos[requests / 2], allocatedBytes / requests), budgets, failures);
+
+            if (pipeline.rankedPlayers() == 0) {
+                failures.add(players + " players: no player was ranked");
+            }
+            if (outputRows > 0) {
+                checkOutput(pipeline, dailyTracker, outputRows, failures);
+            }
+        } finally {
+            usernameCache.close();
+        }
+    }
+
+    /**
+     * Serves page 1 of the leaderboard as a player sees it.
+     */
+    private static List<Component> request(ScalePipeline pipeline, DailyPlaytimeLedger dailyTracker) {
+        PlaytimeEngine.LeaderboardPage page = pipeline.requestPage(Set.of(), 0, PAGE_SIZE);
+        int totalPages = (page.totalPlayers() + PAGE_SIZE - 1) / PAGE_SIZE;
+        Component footer = Component.literal("Page 1/" + totalPages + " - /playtime <page> for more")
+                .withStyle(ChatFormatting.GRAY);
+        return new PlaytimeRunCommand.LeaderboardFormatter(page.entries(), page.firstRank(), Map.of(),
+                HourTierTable.DEFAULT, dailyTracker).buildLeaderboard(footer);
+    }
+
+    /**
+     * Sends one long board through the encoder in every output mode and checks that coalescing pays off.
+     */
+    private static void checkOutput(ScalePipeline pipeline, DailyPlaytimeLedger dailyTracker, int rows,
+                                    List<String> failures) {
+        PlaytimeEngine.LeaderboardPage page = pipeline.requestPage(Set.of(), 0, rows);
+        List<Component> lines = new PlaytimeRunCommand.LeaderboardFormatter(page.entries(), page.firstRank(), Map.of(),
+                HourTierTable.DEFAULT, dailyTracker).buildLeaderboard(null);
+
+        Map<ConfigManager.LeaderboardOutputMode, OutputSize> sizes = new EnumMap<>(ConfigManager.LeaderboardOutputMode.class);
+        for (ConfigManager.LeaderboardOutputMode mode : ConfigManager.LeaderboardOutputMode.values()) {
+            OutputSize size = encode(PlaytimeRunCommand.OutputCoalescer.coalesce(lines, mode));
+            sizes.put(mode, size);
+            System.out.printf("%d-row board, %s output: %d packets, %d bytes encoded, %d bytes compressed%n",
+                    page.entries().size(), mode.getName(), size.packets(), size.encodedBytes(), size.compressedBytes());
+        }
+
+        OutputSize perLine = sizes.get(ConfigManager.LeaderboardOutputMode.LINES);
+        OutputSize chunked = sizes.get(ConfigManager.LeaderboardOutputMode.CHUNKED);
+        if (chunked.packets() >= perLine.packets()) {
+            failures.add(String.format("chunked output: %d packets, not fewer than %d per line", chunked.packets(),
+                    perLine.packets()));
+        }
+        if (chunked.compressedBytes() > perLine.compressedBytes()) {
+            failures.add(String.format("chunked output: %d compressed bytes > %d per line", chunked.compressedBytes(),
+                    perLine.compressedBytes()));
+        }
+    }
+
+    /**
+     * Encodes messages as the server's pipeline does: packet id and body, zlib from the compression threshold on
+     * (below it only a zero length marker is added), and a VarInt length frame.
+     */
+    private static OutputSize encode(List<Component> messages) {
+        Deflater deflater = new Deflater();
+        byte[] compressed = new byte[8192];
+        long encodedBytes = 0;
+        long compressedBytes = 0;
+        for (Component message : messages) {
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            buf.writeVarInt(SYSTEM_CHAT_PACKET_ID);
+            new ClientboundSystemChatPacket(message, false).write(buf);
+            byte[] packet = new byte[buf.readableBytes()];
+            buf.readBytes(packet);
+            encodedBytes += FriendlyByteBuf.getVarIntSize(packet.length) + packet.length;
+
+            int body;
+            if (packet.length < COMPRESSION_THRESHOLD) {
+                body = 1 + packet.length;
+            } else {
+                deflater.reset();
+                deflater.setInput(packet);
+                deflater.finish();
+                int deflated = 0;
+                while (!deflater.finished()) {
+                    deflated += deflater.deflate(compressed);
+                }
+                body = FriendlyByteBuf.getVarIntSize(packet.length) + deflated;
+            }
+            compressedBytes += FriendlyByteBuf.getVarIntSize(body) + body;
+        }
+        deflater.end();
+        return new OutputSize(messages.size(), encodedBytes, compressedBytes);
+    }
+
+    private static Measurement measure(Supplier<?> request) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        sink = request.get();
+        long wallNanos = System.nanoTime() - start;
+        return new Measurement(wallNanos, allocatedBytes() - allocatedBefore);
+    }
+
+    /**
+     * Sums the bytes allocated by all live threads. Threads that ended are no longer counted, but the scanner pool
+     * keeps its threads between requests.
+     */
+    private static long allocatedBytes() {
+        long total = 0;
+        for (long bytes : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static void report(int players, String phase, Measurement measurement, Properties budgets,
+                               List<String> failures) {
+        long wallMillis = measurement.wallNanos() / 1_000_000;
+        double allocatedMegabytes = measurement.allocatedBytes() / (1024.0 * 1024.0);
+        String wallBudget = budgets.getProperty(players + "." + phase + ".wall_ms");
+        String allocBudget = budgets.getProperty(players + "." + phase + ".alloc_mb");
+        System.out.printf("%d players, %s request: %d ms (budget %s), %.1f MB allocated (budget %s)%n",
+                players, phase, wallMillis, wallBudget != null ? wallBudget + " ms" : "none",
+                allocatedMegabytes, allocBudget != null ? allocBudget + " MB" : "none");
+
+        if (wallBudget != null && wallMillis > Long.parseLong(wallBudget.trim())) {
+            failures.add(String.format("%d players, %s request: %d ms > %s ms", players, phase, wallMillis, wallBudget.trim()));
+        }
+        if (allocBudget != null && allocatedMegabytes > Double.parseDouble(allocBudget.trim())) {
+            failures.add(String.format("%d players, %s request: %.1f MB > %s MB", players, phase, allocatedMegabytes,
+                    allocBudget.trim()));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package net.craftmaster08.statsengine.cache;
+
+import net.craftmaster08.statsengine.playtime.SyntheticStats;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the retained heap of {@link CompactUsernameStore} against a {@code HashMap<UUID, String>} holding the same
+ * generated players, and what a lookup allocates through {@link CompactUsernameStore#get} and
+ * {@link CompactUsernameStore#appendTo}. The heap is read after full collections, so run it with nothing else in
+ * the JVM and with {@code -XX:+UseParallelGC}: G1 rounds large arrays up to whole regions, and the serial collector
+ * can keep garbage from one measurement into the next.
+ *
+ * <p>Usage: {@code UsernameFootprint [entry counts]}, 100,000 and 1,000,000 entries by default.
+ */
+public final class UsernameFootprint {
+    private static final int LOOKUPS = 100_000;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Keeps the measured structure and lookup results reachable
+    private static volatile Object sink;
+
+    private UsernameFootprint() {
+    }
+
+    public static void main(String[] args) {
+        String counts = args.length > 0 ? args[0] : "100000,1000000";
+        System.out.printf("%10s %14s %14s %10s %12s %15s%n",
+                "entries", "HashMap", "compact", "ratio", "get B/op", "appendTo B/op");
+        for (String count : counts.split(",")) {
+            int entries = Integer.parseInt(count.trim());
+            UUID[] uuids = new UUID[entries];
+            for (int i = 0; i < entries; i++) {
+                uuids[i] = new UUID(i * 0x9E3779B97F4A7C15L, ~i * 0xC2B2AE3D27D4EB4FL);
+            }
+
+            long hashMap = retained(n -> {
+                Map<UUID, String> map = new HashMap<>();
+                for (int i = 0; i < n; i++) {
+                    map.put(new UUID(uuids[i].getMostSignificantBits(), uuids[i].getLeastSignificantBits()),
+                            SyntheticStats.username(i));
+                }
+                return map;
+            }, entries);
+            CompactUsernameStore store = new CompactUsernameStore();
+            long compact = retained(n -> {
+                for (int i = 0; i < n; i++) {
+                    store.put(uuids[i], SyntheticStats.username(i));
+                }
+                store.merge();
+                return store;
+            }, entries);
+
+            System.out.printf("%,10d %,12d B %,12d B %9.1fx %12.1f %15.1f%n", entries, hashMap, compact,
+                    (double) hashMap / compact, allocatedPerGet(store, uuids), allocatedPerAppend(store, uuids));
+            sink = null;
+        }
+    }
+
+    private static long retained(IntFunction<Object> build, int entries) {
+        sink = null;
+        long before = usedAfterGc();
+        sink = build.apply(entries);
+        return usedAfterGc() - before;
+    }
+
+    /**
+     * Collects and sums what each heap pool held right after the collection. The current pool usage is not used:
+     * some collectors report eden space that the collection already freed.
+     */
+    private static long usedAfterGc() {
+        System.gc();
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null) {
+                used += afterGc.getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static double allocatedPerGet(CompactUsernameStore store, UUID[] uuids) {
+        long start = THREADS.getCurrentThreadAllocatedBytes();
+        Object last = null;
+        for (int i = 0; i < LOOKUPS; i++) {
+            last = store.get(uuids[i % uuids.length]);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - start;
+        sink = last;
+        return (double) allocated / LOOKUPS;
+    }
+
+    private static double allocatedPerAppend(CompactUsernameStore store, UUID[] uuids) {
+        StringBuilder text = new StringBuilder(64);
+        long start = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < LOOKUPS; i++) {
+            text.setLength(0);
+            store.appendTo(uuids[i % uuids.length], text);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - start;
+        sink = text;
+        return (double) allocated / LOOKUPS;
+    }
+}
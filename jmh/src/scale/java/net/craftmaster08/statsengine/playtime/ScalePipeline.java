@@ -0,0 +1,75 @@
+package net.craftmaster08.statsengine.playtime;
+
+import net.craftmaster08.statsengine.StatsFileSource;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The engine part of a leaderboard request, for the scale check: scanning the stats directory, naming players
+ * from the username cache only and selecting a page. Holds the playtime and rank indexes between requests, as StatsCore
+ * does on a running server.
+ */
+public final class ScalePipeline {
+    private final StatsFileSource statsFiles;
+    private final Function<UUID, String> usernames;
+    private PlaytimeIndex index;
+    private PlaytimeRankIndex rankIndex;
+
+    /**
+     * Creates a pipeline with empty indexes, as after a server start.
+     *
+     * @param statsDir  The world's stats directory.
+     * @param usernames Looks up cached names; returns null for unknown players.
+     */
+    public ScalePipeline(Path statsDir, Function<UUID, String> usernames) {
+        this.statsFiles = StatsFileSource.directory(statsDir);
+        this.usernames = usernames;
+        reset();
+    }
+
+    /**
+     * Forgets everything indexed, so the next request parses every stats file again.
+     */
+    public void reset() {
+        index = new PlaytimeIndex(null);
+        rankIndex = new PlaytimeRankIndex();
+    }
+
+    /**
+     * Selects one page of the leaderboard with no players online.
+     *
+     * @param excludedUsernames Usernames that are not ranked.
+     * @param offset            The number of ranked players to skip.
+     * @param limit             The maximum number of players on the page.
+     * @return The page.
+     */
+    public PlaytimeEngine.LeaderboardPage requestPage(Set<String> excludedUsernames, int offset, int limit) {
+        List<PlaytimeEngine.PlayerPlaytime> offline = PlaytimeEngine.collectOfflinePlaytimes(statsFiles, Set.of(), index,
+                null, rankIndex, 0, this::resolveNames);
+        return PlaytimeEngine.selectPage(List.of(), offline, excludedUsernames, offset, limit);
+    }
+
+    /**
+     * Gets the number of players in the rank index.
+     *
+     * @return The number of ranked players.
+     */
+    public int rankedPlayers() {
+        return rankIndex.size();
+    }
+
+    private Map<UUID, String> resolveNames(List<PlaytimeIndex.Entry> entries) {
+        Map<UUID, String> resolved = new HashMap<>();
+        for (PlaytimeIndex.Entry entry : entries) {
+            if (entry.username() == null && entry.playTimeTicks() >= 0) {
+                String username = usernames.apply(entry.uuid());
+                if (username != null) {
+                    resolved.put(entry.uuid(), username);
+                }
+            }
+        }
+        return resolved;
+    }
+}
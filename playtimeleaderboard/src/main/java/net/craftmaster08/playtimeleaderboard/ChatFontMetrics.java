@@ -0,0 +1,106 @@
+package net.craftmaster08.playtimeleaderboard;
+
+import java.util.Arrays;
+
+/**
+ * Pixel widths of text in Minecraft's default chat font, so leaderboard columns line up on the client.
+ * Widths are advances at GUI scale 1: the glyph plus one pixel of spacing, plus one more pixel per character when
+ * bold. Characters outside ASCII fall back to the unifont glyphs, which are about 8 pixels wide, so they advance
+ * 9 pixels with the spacing.
+ */
+final class ChatFontMetrics {
+    static final int SPACE_WIDTH = 4;
+    static final int BOLD_SPACE_WIDTH = SPACE_WIDTH + 1;
+    static final int DIGIT_WIDTH = 6;
+    private static final int DEFAULT_WIDTH = 6;
+    private static final int FALLBACK_WIDTH = 9;
+    private static final byte[] ASCII_WIDTHS = new byte[128];
+
+    static {
+        Arrays.fill(ASCII_WIDTHS, (byte) DEFAULT_WIDTH);
+        set(2, "!',.:;i|");
+        set(3, "`l");
+        set(4, " \"()*I[]t{}");
+        set(5, "<>fk");
+        set(7, "@~");
+    }
+
+    /**
+     * A run of spaces that fills a gap: normal spaces are 4 pixels wide and bold spaces 5, so every gap from
+     * 12 pixels on can be filled exactly and smaller gaps to within a pixel or two.
+     *
+     * @param normal The number of normal spaces.
+     * @param bold   The number of bold spaces.
+     */
+    record Padding(int normal, int bold) {
+        int width() {
+            return normal * SPACE_WIDTH + bold * BOLD_SPACE_WIDTH;
+        }
+    }
+
+    private ChatFontMetrics() {
+    }
+
+    private static void set(int width, String chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            ASCII_WIDTHS[chars.charAt(i)] = (byte) width;
+        }
+    }
+
+    /**
+     * Gets the width of one character.
+     *
+     * @param codePoint The character.
+     * @param bold      Whether the character is bold.
+     * @return The advance in pixels.
+     */
+    static int width(int codePoint, boolean bold) {
+        int width = codePoint < ASCII_WIDTHS.length ? ASCII_WIDTHS[codePoint] : FALLBACK_WIDTH;
+        return bold ? width + 1 : width;
+    }
+
+    /**
+     * Gets the width of a string.
+     *
+     * @param text The text.
+     * @param bold Whether the text is bold.
+     * @return The advance in pixels.
+     */
+    static int width(String text, boolean bold) {
+        int width = 0;
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            width += width(codePoint, bold);
+            i += Character.charCount(codePoint);
+        }
+        return width;
+    }
+
+    /**
+     * Finds the mix of normal and bold spaces closest to a width, preferring fewer spaces on a tie.
+     *
+     * @param pixels The width to fill.
+     * @return The spaces to insert.
+     */
+    static Padding padding(int pixels) {
+        if (pixels <= 0) {
+            return new Padding(0, 0);
+        }
+        Padding best = new Padding(0, 0);
+        int bestError = pixels;
+        // Four bold spaces are as wide as five normal ones, so more than three are never needed
+        for (int bold = 0; bold <= 3; bold++) {
+            int rest = pixels - bold * BOLD_SPACE_WIDTH;
+            int normal = Math.max(0, rest / SPACE_WIDTH);
+            for (int candidate = normal; candidate <= normal + 1; candidate++) {
+                Padding padding = new Padding(candidate, bold);
+                int error = Math.abs(pixels - padding.width());
+                if (error < bestError || error == bestError && candidate + bold < best.normal() + best.bold()) {
+                    best = padding;
+                    bestError = error;
+                }
+            }
+        }
+        return best;
+    }
+}
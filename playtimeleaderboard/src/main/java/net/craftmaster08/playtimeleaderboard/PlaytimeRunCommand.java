@@ -1,32 +1,59 @@
 package net.craftmaster08.playtimeleaderboard;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import net.craftmaster08.cm08statscore.StatsCore;
 import net.craftmaster08.cm08statscore.config.ConfigManager;
+import net.craftmaster08.cm08statscore.config.HourTier;
+import net.craftmaster08.cm08statscore.config.HourTierTable;
 import net.craftmaster08.cm08statscore.playtime.DailyPlaytimeTracker;
 import net.craftmaster08.cm08statscore.playtime.PlaytimeTracker;
+import net.craftmaster08.statsengine.playtime.DailyPlaytimeLedger;
+import net.craftmaster08.statsengine.playtime.PlaytimeEngine;
+import net.craftmaster08.statsengine.playtime.PlaytimeRankIndex;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.commands.SharedSuggestionProvider;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.HoverEvent;
 import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.Style;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Registers and executes the /playtime command to display a leaderboard of player playtimes.
+ * {@code /playtime [page]} shows one page of the configured size, {@code /playtime top <n>} the best n players and
+ * {@code /playtime rank [player]} a player's rank with the players around them.
  */
 public class PlaytimeRunCommand {
     private static final Logger LOGGER = LogManager.getLogger(PlaytimeRunCommand.class);
 
+    private static final int MAX_TOP_COUNT = 100;
+    private static final int RANK_NEIGHBORS = 2;
+    // Distinct leaderboards that may wait for the worker at once; identical requests share one build
+    private static final int MAX_PENDING_BUILDS = 4;
+    private static final Map<BuildKey, CompletableFuture<List<Component>>> PENDING_BUILDS = new ConcurrentHashMap<>();
+    private static final RowCache ROW_CACHE = new RowCache();
+    private static final String DAYS_PREFIX = "    ";
+
     /**
      * Registers the /playtime command with the command dispatcher.
      *
@@ -35,7 +62,23 @@ public class PlaytimeRunCommand {
     public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
         LiteralArgumentBuilder<CommandSourceStack> command = Commands.literal("playtime")
                 .requires(source -> source.hasPermission(0))
-                .executes(context -> new LeaderboardExecutor(context.getSource()).execute());
+                .executes(context -> new LeaderboardExecutor(context.getSource()).executePage(1))
+                .then(Commands.argument("page", IntegerArgumentType.integer(1))
+                        .executes(context -> new LeaderboardExecutor(context.getSource())
+                                .executePage(IntegerArgumentType.getInteger(context, "page"))))
+                .then(Commands.literal("top")
+                        .then(Commands.argument("count", IntegerArgumentType.integer(1, MAX_TOP_COUNT))
+                                .executes(context -> new LeaderboardExecutor(context.getSource())
+                                        .executeTop(IntegerArgumentType.getInteger(context, "count")))))
+                .then(Commands.literal("rank")
+                        .executes(context -> new LeaderboardExecutor(context.getSource()).executeRank(null))
+                        .then(Commands.argument("player", StringArgumentType.word())
+                                .suggests((context, builder) -> SharedSuggestionProvider.suggest(
+                                        context.getSource().getServer().getPlayerList().getPlayers().stream()
+                                                .map(player -> player.getGameProfile().getName()),
+                                        builder))
+                                .executes(context -> new LeaderboardExecutor(context.getSource())
+                                        .executeRank(StringArgumentType.getString(context, "player")))));
 
         try {
             dispatcher.register(command);
@@ -45,6 +88,33 @@ public class PlaytimeRunCommand {
         }
     }
 
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static void appendHours(StringBuilder text, double playtime) {
+        if (playtime >= 1000.0) {
+            text.append((int) playtime);
+        } else {
+            appendHundredths(text, Math.round(playtime * 100.0));
+        }
+        text.append('h');
+    }
+
+    private static void appendHundredths(StringBuilder text, long hundredths) {
+        text.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction);
+    }
+
     /**
      * Handles the execution of the /playtime command, fetching and displaying the leaderboard.
      */
@@ -53,55 +123,237 @@ public class PlaytimeRunCommand {
         private final MinecraftServer server;
         private final ConfigManager config;
         private final DailyPlaytimeTracker dailyPlaytimeTracker;
+        // Console and RCON flatten components to text right away, so they get plain text directly
+        private final boolean plainText;
 
         LeaderboardExecutor(CommandSourceStack source) {
             this.source = source;
+            this.plainText = !source.isPlayer();
             this.server = PlaytimeLeaderboard.getServer();
             this.config = StatsCore.getConfigManager();
             this.dailyPlaytimeTracker = StatsCore.getDailyPlaytimeTracker();
         }
 
-        int execute() {
-            if (server == null) {
-                sendError("Server not initialized");
+        /**
+         * Shows one page of the leaderboard.
+         */
+        int executePage(int page) {
+            if (!validate()) {
                 return 0;
             }
-            if (config == null) {
-                sendError("StatsCore configuration not initialized");
+            return execute(new PageRequest(page, config.leaderboardPageSize, true));
+        }
+
+        /**
+         * Shows the best players on a single page.
+         */
+        int executeTop(int count) {
+            if (!validate()) {
                 return 0;
             }
-            if (dailyPlaytimeTracker == null) {
-                LOGGER.warn("DailyPlaytimeTracker unavailable; daily playtime hover text disabled");
-            }
+            return execute(new PageRequest(1, count, false));
+        }
 
-            List<PlaytimeTracker.PlayerPlaytime> playtimes = fetchPlaytimes();
-            if (playtimes == null) {
+        /**
+         * Shows a player's rank and the players around them from the live rank index, without scanning stats files.
+         *
+         * @param playerName The player to look up, or null for the command source.
+         */
+        int executeRank(String playerName) {
+            if (!validate()) {
+                return 0;
+            }
+            PlaytimeRankIndex rankIndex = StatsCore.getRankIndex();
+            if (rankIndex == null) {
+                sendError("Playtime rank index not initialized");
                 return 0;
             }
-            if (playtimes.isEmpty()) {
-                source.sendSystemMessage(Component.literal("No playtime data available")
+            if (!rankIndex.isSeeded()) {
+                source.sendSystemMessage(Component.literal("Playtime ranks are still being computed, try again in a moment")
                         .withStyle(ChatFormatting.YELLOW));
-                return 1;
+                return 0;
+            }
+
+            UUID uuid;
+            String displayName;
+            if (playerName == null) {
+                ServerPlayer player = source.getPlayer();
+                if (player == null) {
+                    sendError("Specify a player: /playtime rank <player>");
+                    return 0;
+                }
+                uuid = player.getUUID();
+                displayName = player.getGameProfile().getName();
+            } else {
+                ServerPlayer player = server.getPlayerList().getPlayerByName(playerName);
+                uuid = player != null ? player.getUUID() : rankIndex.findByName(playerName);
+                displayName = playerName;
             }
 
+            rankIndex.setExcludedUsernames(config.getBlacklistedPlayers());
+            int rank = uuid != null ? rankIndex.getRank(uuid) : -1;
+            if (rank < 0) {
+                source.sendSystemMessage(Component.literal("No ranked playtime for " + displayName)
+                        .withStyle(ChatFormatting.YELLOW));
+                return 0;
+            }
+
+            List<PlaytimeEngine.PlayerPlaytime> around = rankIndex.getAround(uuid, RANK_NEIGHBORS).stream()
+                    .map(ranked -> new PlaytimeEngine.PlayerPlaytime(
+                            ranked.username() != null ? ranked.username() : PlaytimeTracker.fallbackUsername(ranked.uuid()),
+                            ranked.playTimeTicks() / 20.0 / 3600.0,
+                            ranked.uuid()))
+                    .toList();
+            String footer = displayName + " is ranked #" + rank + " of " + rankIndex.size();
+            int firstRank = Math.max(1, rank - RANK_NEIGHBORS);
+            if (plainText) {
+                source.sendSystemMessage(Component.literal(PlainTextRenderer.render(around, firstRank, footer)));
+                return 1;
+            }
             LeaderboardFormatter formatter = new LeaderboardFormatter(
-                    playtimes,
-                    config.getBlacklistedPlayers(),
+                    around,
+                    firstRank,
                     config.getUsernameColors(),
+                    config.hourTiers,
                     dailyPlaytimeTracker
             );
-            formatter.displayLeaderboard(source);
+            OutputCoalescer.coalesce(formatter.buildLeaderboard(Component.literal(footer).withStyle(ChatFormatting.GOLD)),
+                            config.leaderboardOutputMode)
+                    .forEach(source::sendSystemMessage);
             return 1;
         }
 
-        private List<PlaytimeTracker.PlayerPlaytime> fetchPlaytimes() {
+        private boolean validate() {
+            if (server == null) {
+                sendError("Server not initialized");
+                return false;
+            }
+            if (config == null) {
+                sendError("StatsCore configuration not initialized");
+                return false;
+            }
+            if (dailyPlaytimeTracker == null) {
+                LOGGER.warn("DailyPlaytimeTracker unavailable; daily playtime hover text disabled");
+            }
+            return true;
+        }
+
+        private int execute(PageRequest request) {
+            List<PlaytimeEngine.PlayerPlaytime> onlinePlaytimes = PlaytimeTracker.getOnlinePlaytimes(server);
+            return config.asyncLeaderboard ? executeAsync(onlinePlaytimes, request) : executeSync(onlinePlaytimes, request);
+        }
+
+        private int executeSync(List<PlaytimeEngine.PlayerPlaytime> onlinePlaytimes, PageRequest request) {
+            List<Component> lines;
             try {
-                return PlaytimeTracker.getOverallPlaytime(server);
+                lines = OutputCoalescer.coalesce(buildLeaderboard(onlinePlaytimes, request), config.leaderboardOutputMode);
             } catch (Exception e) {
                 sendError("Failed to retrieve playtime data: " + e.getMessage());
                 LOGGER.error("Failed to retrieve playtime data", e);
-                return null;
+                return 0;
+            }
+            lines.forEach(source::sendSystemMessage);
+            return 1;
+        }
+
+        /**
+         * Builds the leaderboard on the StatsCore worker and sends it from the server thread once it is ready.
+         * A request identical to one still being built waits for that build instead of queueing another scan.
+         */
+        private int executeAsync(List<PlaytimeEngine.PlayerPlaytime> onlinePlaytimes, PageRequest request) {
+            int timeoutSeconds = config.asyncTimeoutSeconds;
+            BuildKey key = new BuildKey(request, plainText, config.leaderboardOutputMode);
+            // Commands run on the server thread, so the check and the insert below cannot race
+            CompletableFuture<List<Component>> build = PENDING_BUILDS.get(key);
+            if (build == null) {
+                if (PENDING_BUILDS.size() >= MAX_PENDING_BUILDS) {
+                    sendError("Too many playtime leaderboards are being computed, try again in a moment");
+                    return 0;
+                }
+                build = startBuild(key, onlinePlaytimes, timeoutSeconds);
+            }
+            source.sendSystemMessage(Component.literal("Computing playtime leaderboard...")
+                    .withStyle(ChatFormatting.GRAY));
+
+            build.whenComplete((lines, error) -> server.execute(() -> {
+                if (error == null) {
+                    lines.forEach(source::sendSystemMessage);
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                if (cause instanceof TimeoutException) {
+                    sendError("Playtime leaderboard timed out after " + timeoutSeconds + "s");
+                    LOGGER.warn("Playtime leaderboard for {} timed out after {}s", source.getTextName(), timeoutSeconds);
+                } else {
+                    sendError("Failed to retrieve playtime data: " + cause.getMessage());
+                    LOGGER.error("Failed to retrieve playtime data", cause);
+                }
+            }));
+            return 1;
+        }
+
+        /**
+         * Queues a build on the StatsCore worker. Once the build times out it is dropped from the queue, and a build
+         * that reaches the front after its callers gave up is skipped, so timed-out requests never occupy the worker.
+         * A build that already started is left to finish, as it also brings the playtime index up to date.
+         */
+        private CompletableFuture<List<Component>> startBuild(BuildKey key, List<PlaytimeEngine.PlayerPlaytime> onlinePlaytimes,
+                                                              int timeoutSeconds) {
+            CompletableFuture<List<Component>> build = new CompletableFuture<>();
+            PENDING_BUILDS.put(key, build);
+            Future<?> task = StatsCore.getWorker().submit(() -> {
+                if (build.isDone()) {
+                    return;
+                }
+                try {
+                    build.complete(OutputCoalescer.coalesce(buildLeaderboard(onlinePlaytimes, key.request()), key.outputMode()));
+                } catch (RuntimeException e) {
+                    build.completeExceptionally(e);
+                }
+            });
+            build.orTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                    .whenComplete((lines, error) -> {
+                        PENDING_BUILDS.remove(key, build);
+                        task.cancel(false);
+                    });
+            return build;
+        }
+
+        /**
+         * Selects the requested page and formats it. Does not touch live game state beyond the online snapshot,
+         * so it may run off the server thread.
+         */
+        private List<Component> buildLeaderboard(List<PlaytimeEngine.PlayerPlaytime> onlinePlaytimes, PageRequest request) {
+            PlaytimeEngine.LeaderboardPage page = PlaytimeTracker.getTopPlaytimes(server, onlinePlaytimes,
+                    config.getBlacklistedPlayers(), request.offset(), request.pageSize());
+            if (page.totalPlayers() == 0) {
+                return List.of(Component.literal("No eligible players to display (all blacklisted or no data)")
+                        .withStyle(ChatFormatting.YELLOW));
+            }
+
+            int totalPages = (page.totalPlayers() + request.pageSize() - 1) / request.pageSize();
+            if (page.entries().isEmpty()) {
+                return List.of(Component.literal("Page " + request.page() + " does not exist; there "
+                                + (totalPages == 1 ? "is 1 page" : "are " + totalPages + " pages"))
+                        .withStyle(ChatFormatting.YELLOW));
             }
+
+            String footer = request.paged() && totalPages > 1
+                    ? "Page " + request.page() + "/" + totalPages + " - /playtime <page> for more"
+                    : null;
+            if (plainText) {
+                return List.of(Component.literal(PlainTextRenderer.render(page.entries(), page.firstRank(), footer)));
+            }
+            LeaderboardFormatter formatter = new LeaderboardFormatter(
+                    page.entries(),
+                    page.firstRank(),
+                    config.getUsernameColors(),
+                    config.hourTiers,
+                    dailyPlaytimeTracker
+            );
+            return formatter.buildLeaderboard(footer != null ? Component.literal(footer).withStyle(ChatFormatting.GRAY) : null);
         }
 
         private void sendError(String message) {
@@ -111,150 +363,404 @@ public class PlaytimeRunCommand {
     }
 
     /**
-     * Formats and displays the playtime leaderboard.
+     * A requested slice of the leaderboard.
+     *
+     * @param page     The page number, starting at 1.
+     * @param pageSize The number of players per page.
+     * @param paged    Whether the output refers to further pages.
+     */
+    private record PageRequest(int page, int pageSize, boolean paged) {
+        int offset() {
+            return (int) Math.min(Integer.MAX_VALUE, (long) (page - 1) * pageSize);
+        }
+    }
+
+    /**
+     * Identifies leaderboard builds that produce the same messages, so concurrent identical requests can share one.
+     *
+     * @param request    The requested slice.
+     * @param plainText  Whether the output is plain text for the console.
+     * @param outputMode How the lines are grouped into messages.
      */
-    private static class LeaderboardFormatter {
-        private static final int BASE_PADDING = 16;
-        private static final int RANK_LENGTH = 3;
+    private record BuildKey(PageRequest request, boolean plainText, ConfigManager.LeaderboardOutputMode outputMode) {}
 
-        private final List<PlaytimeTracker.PlayerPlaytime> playtimes;
-        private final Set<String> blacklistedPlayers;
+    /**
+     * Formats one page of the playtime leaderboard in a single pass. Each row is measured once in pixels of the chat
+     * font; the widest row then sets the name column and the border, so columns line up despite proportional glyphs.
+     */
+    static class LeaderboardFormatter {
+        // As wide as the 16 character name column the leaderboard always had
+        private static final int MIN_NAME_COLUMN_WIDTH = 16 * ChatFontMetrics.DIGIT_WIDTH;
+        private static final int BORDER_CHAR_WIDTH = ChatFontMetrics.width('=', true);
+        private static final int HEADER_WIDTH = ChatFontMetrics.width("Playtime:", false);
+
+        /**
+         * A row with the inputs of its row key and its measured width before the name padding.
+         */
+        private record MeasuredRow(PlaytimeEngine.PlayerPlaytime playtime, long centiHours, int position,
+                                   HourTier tier, int leadingWidth) {}
+
+        private final List<PlaytimeEngine.PlayerPlaytime> playtimes;
+        private final int firstRank;
         private final Map<String, ChatFormatting> usernameColors;
-        private final DailyPlaytimeTracker dailyPlaytimeTracker;
+        private final HourTierTable hourTiers;
+        private final DailyPlaytimeLedger dailyPlaytimeTracker;
 
         LeaderboardFormatter(
-                List<PlaytimeTracker.PlayerPlaytime> playtimes,
-                Set<String> blacklistedPlayers,
+                List<PlaytimeEngine.PlayerPlaytime> playtimes,
+                int firstRank,
                 Map<String, ChatFormatting> usernameColors,
-                DailyPlaytimeTracker dailyPlaytimeTracker
+                HourTierTable hourTiers,
+                DailyPlaytimeLedger dailyPlaytimeTracker
         ) {
             this.playtimes = playtimes;
-            this.blacklistedPlayers = blacklistedPlayers;
+            this.firstRank = firstRank;
             this.usernameColors = usernameColors;
+            this.hourTiers = hourTiers;
             this.dailyPlaytimeTracker = dailyPlaytimeTracker;
         }
 
-        void displayLeaderboard(CommandSourceStack source) {
-            // Filter out blacklisted players
-            List<PlaytimeTracker.PlayerPlaytime> filteredPlaytimes = playtimes.stream()
-                    .filter(pt -> !blacklistedPlayers.contains(pt.username()))
-                    .toList();
-
-            if (filteredPlaytimes.isEmpty()) {
-                source.sendSystemMessage(Component.literal("No eligible players to display (all blacklisted or no data)")
-                        .withStyle(ChatFormatting.YELLOW));
-                return;
+        List<Component> buildLeaderboard(Component footer) {
+            List<MeasuredRow> rows = new ArrayList<>(playtimes.size());
+            int nameColumnWidth = MIN_NAME_COLUMN_WIDTH;
+            int maxValueWidth = 0;
+            for (int i = 0; i < playtimes.size(); i++) {
+                PlaytimeEngine.PlayerPlaytime pt = playtimes.get(i);
+                long centiHours = Math.round(pt.playtime() * 100.0);
+                int position = firstRank + i;
+                HourTier tier = hourTiers.tierFor(centiHours / 100.0);
+                int leadingWidth = PodiumRank.fromPosition(position).width(position)
+                        + ChatFontMetrics.width(pt.username(), false) + ChatFontMetrics.width(':', false);
+                rows.add(new MeasuredRow(pt, centiHours, position, tier, leadingWidth));
+                nameColumnWidth = Math.max(nameColumnWidth, leadingWidth + ChatFontMetrics.SPACE_WIDTH);
+                maxValueWidth = Math.max(maxValueWidth, measureValue(centiHours, tier));
             }
 
-            int maxUsernameLength = calculateMaxUsernameLength(filteredPlaytimes);
-            int totalPadding = Math.max(BASE_PADDING, maxUsernameLength + RANK_LENGTH);
-            int maxLineLength = calculateMaxLineLength(totalPadding, filteredPlaytimes);
-
-            String border = "=".repeat(maxLineLength + 3);
+            int lineWidth = Math.max(HEADER_WIDTH, nameColumnWidth + maxValueWidth);
+            String border = "=".repeat((lineWidth + BORDER_CHAR_WIDTH - 1) / BORDER_CHAR_WIDTH);
             MutableComponent borderComponent = Component.literal(border)
                     .withStyle(Style.EMPTY.withColor(ChatFormatting.GOLD).withBold(true));
 
-            source.sendSystemMessage(borderComponent);
-            source.sendSystemMessage(Component.literal("Playtime:")
+            List<Component> lines = new ArrayList<>(rows.size() + 5);
+            lines.add(borderComponent);
+            lines.add(Component.literal("Playtime:")
                     .withStyle(ChatFormatting.DARK_GREEN));
 
-            for (int i = 0; i < filteredPlaytimes.size(); i++) {
-                formatPlayerEntry(source, filteredPlaytimes.get(i), i + 1, totalPadding);
-                if (i == 2 && filteredPlaytimes.size() > 3) {
-                    source.sendSystemMessage(Component.literal(""));
+            for (int i = 0; i < rows.size(); i++) {
+                lines.add(formatPlayerEntry(rows.get(i), nameColumnWidth));
+                if (firstRank + i == 3 && i < rows.size() - 1) {
+                    lines.add(Component.literal(""));
                 }
             }
 
-            source.sendSystemMessage(borderComponent);
+            lines.add(borderComponent);
+            if (footer != null) {
+                lines.add(footer);
+            }
+            LOGGER.debug("Leaderboard row cache: {} hits, {} misses since startup", ROW_CACHE.getHits(), ROW_CACHE.getMisses());
+            return lines;
         }
 
-        private int calculateMaxUsernameLength(List<PlaytimeTracker.PlayerPlaytime> playtimes) {
-            return playtimes.stream()
-                    .map(pt -> (pt.username() + ":").length())
-                    .max(Integer::compareTo)
-                    .orElse(0);
+        /**
+         * Measures everything right of the name column: the symbol, the hours and, from 100 hours on, the days.
+         * Works on the quantized values, so no text is formatted for rows that come from the row cache.
+         */
+        private static int measureValue(long centiHours, HourTier tier) {
+            int width = ChatFontMetrics.width('h', false);
+            if (tier.symbol() != null) {
+                width += ChatFontMetrics.width(tier.symbol(), false) + ChatFontMetrics.SPACE_WIDTH;
+            }
+            if (centiHours >= 100_000) {
+                width += digits(centiHours / 100) * ChatFontMetrics.DIGIT_WIDTH;
+            } else {
+                width += measureHundredths(centiHours, false);
+            }
+            if (centiHours >= 10_000) {
+                width += DAYS_PREFIX.length() * ChatFontMetrics.BOLD_SPACE_WIDTH
+                        + ChatFontMetrics.width('(', true)
+                        + measureHundredths(RowKey.dayHundredths(centiHours), true)
+                        + ChatFontMetrics.width("d)", true);
+            }
+            return width;
         }
 
-        private int calculateMaxLineLength(int totalPadding, List<PlaytimeTracker.PlayerPlaytime> playtimes) {
-            int maxLineLength = 0;
+        private static int measureHundredths(long hundredths, boolean bold) {
+            int digitWidth = bold ? ChatFontMetrics.DIGIT_WIDTH + 1 : ChatFontMetrics.DIGIT_WIDTH;
+            return (digits(hundredths / 100) + 2) * digitWidth + ChatFontMetrics.width('.', bold);
+        }
+
+        /**
+         * Gets a player's row from the row cache, rendering it only if one of its inputs changed.
+         */
+        private Component formatPlayerEntry(MeasuredRow row, int nameColumnWidth) {
+            PlaytimeEngine.PlayerPlaytime pt = row.playtime();
+            long dailySeconds = dailyPlaytimeTracker != null
+                    ? dailyPlaytimeTracker.getDailyTicks(pt.uuid()) / 20
+                    : -1;
+            RowKey key = new RowKey(
+                    pt.username(),
+                    row.centiHours(),
+                    dailySeconds,
+                    usernameColors.getOrDefault(pt.username(), ChatFormatting.WHITE),
+                    row.position(),
+                    row.tier(),
+                    nameColumnWidth - row.leadingWidth()
+            );
+            return ROW_CACHE.get(pt.uuid(), key);
+        }
+    }
+
+    /**
+     * Renders the leaderboard as aligned plain text in a single StringBuilder, for sources that cannot show styles
+     * or hover text. Every row carries its rank so scripts can parse the output line by line.
+     */
+    static class PlainTextRenderer {
+        private static final int HOURS_WIDTH = 9;
+
+        /**
+         * Renders one page of the leaderboard.
+         *
+         * @param playtimes The players on the page, highest playtime first.
+         * @param firstRank The rank of the first player.
+         * @param footer    A line shown below the table, or null for none.
+         * @return The rendered text, one line per row.
+         */
+        static String render(List<PlaytimeEngine.PlayerPlaytime> playtimes, int firstRank, String footer) {
+            int rankWidth = String.valueOf(firstRank + playtimes.size() - 1).length() + 1;
+            int nameWidth = 0;
+            for (PlaytimeEngine.PlayerPlaytime pt : playtimes) {
+                nameWidth = Math.max(nameWidth, pt.username().length() + 1);
+            }
+
+            StringBuilder text = new StringBuilder(32 + playtimes.size() * (rankWidth + nameWidth + 24));
+            text.append("Playtime:");
             for (int i = 0; i < playtimes.size(); i++) {
-                int lineLength = 0;
-                PodiumRank rank = PodiumRank.fromPosition(i + 1);
-                if (rank != PodiumRank.NONE) {
-                    lineLength += RANK_LENGTH;
+                PlaytimeEngine.PlayerPlaytime pt = playtimes.get(i);
+                String rank = (firstRank + i) + ".";
+                text.append('\n');
+                pad(text, rankWidth - rank.length());
+                text.append(rank).append(' ').append(pt.username()).append(':');
+                pad(text, nameWidth - pt.username().length() - 1);
+
+                // Right-align hours in a 9 character column
+                pad(text, Math.max(1, HOURS_WIDTH - hoursLength(pt.playtime())));
+                appendHours(text, pt.playtime());
+                if (pt.playtime() >= 100.0) {
+                    text.append("    (");
+                    appendHundredths(text, Math.round(pt.playtime() / 24.0 * 100.0));
+                    text.append("d)");
                 }
-                lineLength += totalPadding;
+            }
+            if (footer != null) {
+                text.append('\n').append(footer);
+            }
+            return text.toString();
+        }
+
+        private static int hoursLength(double playtime) {
+            if (playtime >= 1000.0) {
+                return digits((int) playtime) + 1;
+            }
+            return digits(Math.round(playtime * 100.0) / 100) + 4;
+        }
 
-                double playtime = playtimes.get(i).playtime();
-                String hoursText = playtime >= 1000.0 ? String.format("%d", (int) playtime) : String.format("%.2f", playtime);
-                lineLength += hoursText.length() + 1;
-                if (playtime >= 1000.0) {
-                    lineLength += 1;
+        private static void pad(StringBuilder text, int count) {
+            for (int i = 0; i < count; i++) {
+                text.append(' ');
+            }
+        }
+    }
+
+    /**
+     * Joins leaderboard lines into a few multi-line chat messages, so a long board is not sent as one packet per line.
+     */
+    static class OutputCoalescer {
+        // Well below the 262144 character limit the client enforces on a chat component
+        private static final int MAX_CHUNK_CHARS = 32 * 1024;
+        private static final int MAX_MESSAGE_CHARS = 256 * 1024;
+        // Packet id, length prefix and overlay flag of ClientboundSystemChatPacket
+        private static final int PACKET_OVERHEAD_BYTES = 4;
+        private static final Component NEWLINE = Component.literal("\n");
+        private static final int NEWLINE_CHARS = Component.Serializer.toJson(NEWLINE).length() + 1;
+
+        /**
+         * Groups lines into messages according to the output mode.
+         *
+         * @param lines The leaderboard lines.
+         * @param mode  The configured output mode.
+         * @return The messages to send, in order.
+         */
+        static List<Component> coalesce(List<Component> lines, ConfigManager.LeaderboardOutputMode mode) {
+            if (mode == ConfigManager.LeaderboardOutputMode.LINES || lines.size() <= 1) {
+                return lines;
+            }
+            int maxChars = mode == ConfigManager.LeaderboardOutputMode.SINGLE ? MAX_MESSAGE_CHARS : MAX_CHUNK_CHARS;
+
+            List<Component> messages = new ArrayList<>();
+            MutableComponent message = null;
+            int messageChars = 0;
+            long lineBytes = 0;
+            long messageBytes = 0;
+            for (Component line : lines) {
+                // ASCII JSON, so characters approximate encoded bytes
+                int chars = Component.Serializer.toJson(line).length() + 1;
+                lineBytes += chars + PACKET_OVERHEAD_BYTES;
+                if (message != null && messageChars + NEWLINE_CHARS + chars > maxChars) {
+                    messages.add(message);
+                    messageBytes += messageChars + PACKET_OVERHEAD_BYTES;
+                    message = null;
                 }
-                if (playtime >= 100.0) {
-                    double days = playtime / 24.0;
-                    lineLength += String.format("(%.2fd)", days).length() + 4;
+                if (message == null) {
+                    message = Component.empty().append(line);
+                    messageChars = chars;
+                } else {
+                    message.append(NEWLINE).append(line);
+                    messageChars += NEWLINE_CHARS + chars;
                 }
-                maxLineLength = Math.max(maxLineLength, lineLength);
             }
-            return Math.max(maxLineLength, 9);
+            messages.add(message);
+            messageBytes += messageChars + PACKET_OVERHEAD_BYTES;
+
+            LOGGER.debug("Leaderboard output ({}): {} packets, ~{} bytes instead of {} packets, ~{} bytes",
+                    mode.getName(), messages.size(), messageBytes, lines.size(), lineBytes);
+            return messages;
+        }
+    }
+
+    /**
+     * Everything a rendered leaderboard row depends on. Playtime is quantized to the displayed hundredths of an hour
+     * and daily playtime to whole seconds, so a row is only rebuilt when its visible text changes.
+     *
+     * @param username     The player's name.
+     * @param centiHours   The playtime in hundredths of an hour.
+     * @param dailySeconds The daily playtime in seconds, or -1 if daily tracking is unavailable.
+     * @param color        The username color.
+     * @param position     The rank shown in front of the name.
+     * @param tier         The hour tier, so rows are rebuilt when the tiers are edited.
+     * @param padWidth     The width in pixels of the gap between the name and the hours.
+     */
+    private record RowKey(String username, long centiHours, long dailySeconds, ChatFormatting color, int position,
+                          HourTier tier, int padWidth) {
+        double playtime() {
+            return centiHours / 100.0;
+        }
+
+        static long dayHundredths(long centiHours) {
+            return Math.round(centiHours / 24.0);
         }
+    }
 
-        private void formatPlayerEntry(CommandSourceStack source, PlaytimeTracker.PlayerPlaytime pt, int position, int totalPadding) {
-            PodiumRank rank = PodiumRank.fromPosition(position);
-            MutableComponent message = rank.formatRank();
-            if (rank != PodiumRank.NONE) {
-                message = message.append(Component.literal(" "));
+    /**
+     * Caches the last rendered row of each player. Offline players' rows rarely change, so repeated renders of the
+     * leaderboard mostly reuse their components.
+     */
+    private static class RowCache {
+        private record CachedRow(RowKey key, Component row) {}
+
+        private final Map<UUID, CachedRow> rows = new ConcurrentHashMap<>();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        Component get(UUID uuid, RowKey key) {
+            CachedRow cached = rows.get(uuid);
+            if (cached != null && cached.key().equals(key)) {
+                hits.incrementAndGet();
+                return cached.row();
             }
+            misses.incrementAndGet();
+            Component row = render(key);
+            rows.put(uuid, new CachedRow(key, row));
+            return row;
+        }
+
+        long getHits() {
+            return hits.get();
+        }
 
-            String username = pt.username() + ":";
-            int usernamePadding = (rank != PodiumRank.NONE) ? totalPadding - RANK_LENGTH : totalPadding;
-            String paddedUsername = username + " ".repeat(Math.max(0, usernamePadding - username.length()));
-            ChatFormatting usernameColor = usernameColors.getOrDefault(pt.username(), ChatFormatting.WHITE);
-            MutableComponent usernameComponent = Component.literal(paddedUsername)
-                    .withStyle(Style.EMPTY.withColor(usernameColor).withBold(false));
+        long getMisses() {
+            return misses.get();
+        }
+
+        /**
+         * Formats playtime in the colors of its tier: one color for all of it, or one per character.
+         */
+        private static MutableComponent formatHours(HourTier tier, double playtime) {
+            StringBuilder hoursBuilder = new StringBuilder(8);
+            appendHours(hoursBuilder, playtime);
+            // The trailing "h" has its own color
+            String hoursText = hoursBuilder.substring(0, hoursBuilder.length() - 1);
+            MutableComponent component = Component.literal("");
+
+            if (tier.symbol() != null) {
+                component.append(Component.literal(tier.symbol() + " ")
+                        .withStyle(Style.EMPTY.withColor(tier.symbolColor()).withBold(false)));
+            }
 
-            MutableComponent hours = HourRange.findRange(pt.playtime()).formatHours(pt.playtime());
-            if (dailyPlaytimeTracker != null) {
-                double dailyHours = dailyPlaytimeTracker.getDailyPlaytime(pt.uuid());
-                String dailyText = DailyPlaytimeTracker.formatDailyPlaytime(dailyHours);
-                hours = hours.withStyle(hours.getStyle().withHoverEvent(
-                        new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal(dailyText))
-                ));
+            List<ChatFormatting> hoursColors = tier.hoursColors();
+            if (hoursColors.size() > 1) {
+                for (int i = 0; i < hoursText.length(); i++) {
+                    ChatFormatting color = i < hoursColors.size() ? hoursColors.get(i) : ChatFormatting.WHITE;
+                    component.append(Component.literal(String.valueOf(hoursText.charAt(i)))
+                            .withStyle(Style.EMPTY.withColor(color).withBold(false)));
+                }
             } else {
-                hours = hours.withStyle(hours.getStyle().withHoverEvent(
-                        new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal("Daily playtime unavailable"))
-                ));
+                component.append(Component.literal(hoursText)
+                        .withStyle(Style.EMPTY.withColor(hoursColors.get(0)).withBold(false)));
             }
 
-            message = message.append(usernameComponent).append(hours);
+            component.append(Component.literal("h")
+                    .withStyle(Style.EMPTY.withColor(tier.hColor()).withBold(false)));
+
+            return component;
+        }
+
+        private static Component render(RowKey key) {
+            PodiumRank rank = PodiumRank.fromPosition(key.position());
+            MutableComponent message = rank.formatRank(key.position()).append(Component.literal(" "));
+
+            ChatFontMetrics.Padding padding = ChatFontMetrics.padding(key.padWidth());
+            message = message.append(Component.literal(key.username() + ":" + " ".repeat(padding.normal()))
+                    .withStyle(Style.EMPTY.withColor(key.color()).withBold(false)));
+            if (padding.bold() > 0) {
+                message = message.append(Component.literal(" ".repeat(padding.bold()))
+                        .withStyle(Style.EMPTY.withBold(true)));
+            }
 
-            if (pt.playtime() >= 100.0) {
-                double days = pt.playtime() / 24.0;
-                String daysText = String.format("    (%.2fd)", days);
-                message = message.append(Component.literal(daysText)
+            double playtime = key.playtime();
+            MutableComponent hours = formatHours(key.tier(), playtime);
+            String hoverText = key.dailySeconds() >= 0
+                    ? DailyPlaytimeLedger.formatDailySeconds(key.dailySeconds())
+                    : "Daily playtime unavailable";
+            hours = hours.withStyle(hours.getStyle().withHoverEvent(
+                    new HoverEvent(HoverEvent.Action.SHOW_TEXT, Component.literal(hoverText))
+            ));
+
+            message = message.append(hours);
+
+            if (key.centiHours() >= 10_000) {
+                StringBuilder daysText = new StringBuilder(DAYS_PREFIX).append('(');
+                appendHundredths(daysText, RowKey.dayHundredths(key.centiHours()));
+                message = message.append(Component.literal(daysText.append("d)").toString())
                         .withStyle(Style.EMPTY.withColor(rank.getColor()).withBold(true)));
             }
 
-            source.sendSystemMessage(message);
+            return message;
         }
     }
 
     /**
-     * Represents a podium rank for the top 3 players in the leaderboard.
+     * The style of a rank: the top 3 players get a podium color in bold, everyone else a plain number.
      */
     private enum PodiumRank {
-        FIRST(1, ChatFormatting.GOLD, true),
-        SECOND(2, ChatFormatting.WHITE, true),
-        THIRD(3, ChatFormatting.DARK_PURPLE, true),
-        NONE(0, ChatFormatting.WHITE, false);
+        FIRST(ChatFormatting.GOLD, true),
+        SECOND(ChatFormatting.WHITE, true),
+        THIRD(ChatFormatting.DARK_PURPLE, true),
+        NONE(ChatFormatting.WHITE, false);
 
-        private final int rank;
         private final ChatFormatting color;
         private final boolean isBold;
 
-        PodiumRank(int rank, ChatFormatting color, boolean isBold) {
-            this.rank = rank;
+        PodiumRank(ChatFormatting color, boolean isBold) {
             this.color = color;
             this.isBold = isBold;
         }
@@ -268,95 +774,23 @@ public class PlaytimeRunCommand {
             };
         }
 
-        public MutableComponent formatRank() {
-            if (this == NONE) {
-                return Component.literal("");
-            }
-            return Component.literal(rank + ".")
+        public MutableComponent formatRank(int position) {
+            return Component.literal(position + ".")
                     .withStyle(Style.EMPTY.withColor(color).withBold(isBold));
         }
 
         public ChatFormatting getColor() {
             return color;
         }
-    }
 
-    /**
-     * Defines hour ranges for formatting playtime with colors and symbols.
-     */
-    private enum HourRange {
-        UNDER_100(0, 100, new ChatFormatting[]{ChatFormatting.GRAY}, ChatFormatting.GRAY, null, null),
-        H_100_199(100, 200, new ChatFormatting[]{ChatFormatting.WHITE}, ChatFormatting.WHITE, null, null),
-        H_200_299(200, 300, new ChatFormatting[]{ChatFormatting.GOLD}, ChatFormatting.GOLD, null, null),
-        H_300_399(300, 400, new ChatFormatting[]{ChatFormatting.AQUA}, ChatFormatting.AQUA, null, null),
-        H_400_499(400, 500, new ChatFormatting[]{ChatFormatting.DARK_GREEN}, ChatFormatting.DARK_GREEN, null, null),
-        H_500_599(500, 600, new ChatFormatting[]{ChatFormatting.DARK_AQUA}, ChatFormatting.DARK_AQUA, null, null),
-        H_600_699(600, 700, new ChatFormatting[]{ChatFormatting.DARK_RED}, ChatFormatting.DARK_RED, null, null),
-        H_700_799(700, 800, new ChatFormatting[]{ChatFormatting.LIGHT_PURPLE}, ChatFormatting.LIGHT_PURPLE, null, null),
-        H_800_899(800, 900, new ChatFormatting[]{ChatFormatting.BLUE}, ChatFormatting.BLUE, null, null),
-        H_900_999(900, 1000, new ChatFormatting[]{ChatFormatting.DARK_PURPLE}, ChatFormatting.DARK_PURPLE, null, null),
-        H_1000_1099(1000, 1100, new ChatFormatting[]{ChatFormatting.GOLD, ChatFormatting.YELLOW, ChatFormatting.GREEN, ChatFormatting.AQUA}, ChatFormatting.LIGHT_PURPLE, "✫", ChatFormatting.RED),
-        H_1100_1199(1100, 1200, new ChatFormatting[]{ChatFormatting.WHITE}, ChatFormatting.GRAY, "✪", ChatFormatting.GRAY),
-        H_1200_1299(1200, 1300, new ChatFormatting[]{ChatFormatting.YELLOW}, ChatFormatting.GRAY, "✪", ChatFormatting.GOLD),
-        H_1300_1399(1300, 1400, new ChatFormatting[]{ChatFormatting.AQUA}, ChatFormatting.GRAY, "✪", ChatFormatting.DARK_AQUA),
-        H_1400_1499(1400, 1500, new ChatFormatting[]{ChatFormatting.GREEN}, ChatFormatting.GRAY, "✪", ChatFormatting.DARK_GREEN),
-        H_1500_1599(1500, 1600, new ChatFormatting[]{ChatFormatting.DARK_AQUA}, ChatFormatting.GRAY, "✪", ChatFormatting.BLUE),
-        H_1600_1699(1600, 1700, new ChatFormatting[]{ChatFormatting.RED}, ChatFormatting.GRAY, "✪", ChatFormatting.DARK_RED),
-        H_1700_1799(1700, 1800, new ChatFormatting[]{ChatFormatting.LIGHT_PURPLE}, ChatFormatting.GRAY, "✪", ChatFormatting.DARK_PURPLE),
-        H_1800_1899(1800, 1900, new ChatFormatting[]{ChatFormatting.BLUE}, ChatFormatting.GRAY, "✪", ChatFormatting.DARK_BLUE),
-        H_1900_1999(1900, 2000, new ChatFormatting[]{ChatFormatting.DARK_PURPLE}, ChatFormatting.GRAY, "✪", ChatFormatting.DARK_GRAY),
-        H_2000_2099(2000, 2100, new ChatFormatting[]{ChatFormatting.GRAY, ChatFormatting.WHITE, ChatFormatting.WHITE, ChatFormatting.GRAY}, ChatFormatting.DARK_GRAY, "✪", ChatFormatting.GRAY);
-
-        private final double minHours;
-        private final double maxHours;
-        private final ChatFormatting[] hoursColors;
-        private final ChatFormatting hColor;
-        private final String starSymbol;
-        private final ChatFormatting starColor;
-
-        HourRange(double minHours, double maxHours, ChatFormatting[] hoursColors, ChatFormatting hColor, String starSymbol, ChatFormatting starColor) {
-            this.minHours = minHours;
-            this.maxHours = maxHours;
-            this.hoursColors = hoursColors;
-            this.hColor = hColor;
-            this.starSymbol = starSymbol;
-            this.starColor = starColor;
-        }
-
-        public static HourRange findRange(double playtime) {
-            for (HourRange range : values()) {
-                if (playtime >= range.minHours && playtime < range.maxHours) {
-                    return range;
-                }
-            }
-            return H_2000_2099;
-        }
-
-        public MutableComponent formatHours(double playtime) {
-            String hoursText = playtime >= 1000.0 ? String.format("%d", (int) playtime) : String.format("%.2f", playtime);
-            MutableComponent component = Component.literal("");
-
-            if (starSymbol != null) {
-                component.append(Component.literal(starSymbol + " ")
-                        .withStyle(Style.EMPTY.withColor(starColor).withBold(false)));
-            }
-
-            if (hoursColors.length > 1) {
-                String[] chars = hoursText.split("");
-                for (int i = 0; i < chars.length; i++) {
-                    ChatFormatting color = i < hoursColors.length ? hoursColors[i] : ChatFormatting.WHITE;
-                    component.append(Component.literal(chars[i])
-                            .withStyle(Style.EMPTY.withColor(color).withBold(false)));
-                }
-            } else {
-                component.append(Component.literal(hoursText)
-                        .withStyle(Style.EMPTY.withColor(hoursColors[0]).withBold(false)));
-            }
-
-            component.append(Component.literal("h")
-                    .withStyle(Style.EMPTY.withColor(hColor).withBold(false)));
-
-            return component;
+        /**
+         * Gets the width in pixels of the rank and the space after it, without formatting the number. The space is a
+         * child of the rank, so it is bold on the podium.
+         */
+        public int width(int position) {
+            int digitWidth = isBold ? ChatFontMetrics.DIGIT_WIDTH + 1 : ChatFontMetrics.DIGIT_WIDTH;
+            int spaceWidth = isBold ? ChatFontMetrics.BOLD_SPACE_WIDTH : ChatFontMetrics.SPACE_WIDTH;
+            return digits(position) * digitWidth + ChatFontMetrics.width('.', isBold) + spaceWidth;
         }
     }
-}
\ No newline at end of file
+}
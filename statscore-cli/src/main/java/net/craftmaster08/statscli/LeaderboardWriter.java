@@ -0,0 +1,116 @@
+package net.craftmaster08.statscli;
+
+import com.google.gson.stream.JsonWriter;
+import net.craftmaster08.statsengine.playtime.PlaytimeEngine;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a leaderboard as JSON or CSV. Rows are streamed, so the whole output never has to fit in memory twice.
+ */
+enum LeaderboardWriter {
+    /**
+     * An object with the totals and a {@code players} array.
+     */
+    JSON {
+        @Override
+        void write(PlaytimeEngine.LeaderboardPage page, Writer out) throws IOException {
+            JsonWriter json = new JsonWriter(out);
+            json.setIndent("  ");
+            json.beginObject();
+            json.name("totalPlayers").value(page.totalPlayers());
+            json.name("players").beginArray();
+            int rank = page.firstRank();
+            for (PlaytimeEngine.PlayerPlaytime player : page.entries()) {
+                json.beginObject();
+                json.name("rank").value(rank++);
+                json.name("uuid").value(player.uuid().toString());
+                json.name("username").value(player.username());
+                json.name("hours").value(Math.round(player.playtime() * 100.0) / 100.0);
+                json.name("ticks").value(ticks(player));
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+            json.flush();
+            out.write('\n');
+            out.flush();
+        }
+    },
+    /**
+     * One row per player under a {@code rank,uuid,username,hours,ticks} header.
+     */
+    CSV {
+        @Override
+        void write(PlaytimeEngine.LeaderboardPage page, Writer out) throws IOException {
+            out.write("rank,uuid,username,hours,ticks\n");
+            int rank = page.firstRank();
+            for (PlaytimeEngine.PlayerPlaytime player : page.entries()) {
+                out.write(Integer.toString(rank++));
+                out.write(',');
+                out.write(player.uuid().toString());
+                out.write(',');
+                out.write(quote(player.username()));
+                out.write(',');
+                writeHours(out, player.playtime());
+                out.write(',');
+                out.write(Long.toString(ticks(player)));
+                out.write('\n');
+            }
+            out.flush();
+        }
+    };
+
+    /**
+     * Writes the leaderboard.
+     *
+     * @param page The ranked players.
+     * @param out  The destination; flushed but not closed.
+     * @throws IOException If writing fails.
+     */
+    abstract void write(PlaytimeEngine.LeaderboardPage page, Writer out) throws IOException;
+
+    /**
+     * Gets the writer for a format name.
+     *
+     * @param name The format, {@code json} or {@code csv} in any case.
+     * @return The writer, or null if the format is unknown.
+     */
+    static LeaderboardWriter forName(String name) {
+        for (LeaderboardWriter writer : values()) {
+            if (writer.name().equalsIgnoreCase(name)) {
+                return writer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes hours with two decimals; {@link String#format} would cost more than the rest of the row.
+     */
+    private static void writeHours(Writer out, double hours) throws IOException {
+        long hundredths = Math.round(hours * 100.0);
+        out.write(Long.toString(hundredths / 100));
+        out.write('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.write('0');
+        }
+        out.write(Long.toString(fraction));
+    }
+
+    private static long ticks(PlaytimeEngine.PlayerPlaytime player) {
+        return Math.round(player.playtime() * 3600.0 * 20.0);
+    }
+
+    /**
+     * Quotes a field only if it needs it. Minecraft names never do, but fallback names and hand-edited caches might.
+     */
+    private static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
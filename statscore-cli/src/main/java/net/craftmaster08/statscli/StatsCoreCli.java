@@ -0,0 +1,192 @@
+package net.craftmaster08.statscli;
+
+import net.craftmaster08.statsengine.ProfileCache;
+import net.craftmaster08.statsengine.StatsFileSource;
+import net.craftmaster08.statsengine.playtime.PlaytimeEngine;
+import net.craftmaster08.statsengine.playtime.PlaytimeIndex;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Ranks the playtime of every player in a world folder and prints the leaderboard as JSON or CSV. Uses the same
+ * scanning and ranking as {@code /playtime}, but reads names only from local files and never goes online, so it can
+ * run on a copy of a world or next to a live server without changing its files.
+ *
+ * <p>Usage: {@code statscore-cli <world dir> [options]}; run without arguments for the options. Exits with status 0
+ * on success, 1 if the world or a name file cannot be read and 2 on invalid arguments.
+ */
+public final class StatsCoreCli {
+    private static final String USAGE = """
+            Usage: statscore-cli <world dir> [options]
+              --format json|csv      Output format (default: json)
+              --output <file>        Write to a file instead of stdout
+              --usernames <file>     StatsCore's playtime_usernames.json (default: next to the world, if present)
+              --usercache <file>     The server's usercache.json (default: next to the world, if present)
+              --exclude <a,b,...>    Usernames to leave out, such as blacklisted players
+              --limit <n>            Only output the top n players
+              --threads <n>          Stats parsing threads (default: one per processor)""";
+
+    /**
+     * The parsed command line.
+     *
+     * @param worldDir  The world folder, holding the stats folder.
+     * @param writer    The output format.
+     * @param output    The output file, or null for stdout.
+     * @param usernames StatsCore's username cache file, or null.
+     * @param usercache The server's usercache.json, or null.
+     * @param excluded  Usernames that are not ranked.
+     * @param limit     The maximum number of players to output.
+     * @param threads   The number of parsing threads, or 0 for one per processor.
+     */
+    record Options(Path worldDir, LeaderboardWriter writer, Path output, Path usernames, Path usercache,
+                   Set<String> excluded, int limit, int threads) {}
+
+    private StatsCoreCli() {
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            run(options);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses the command line.
+     *
+     * @param args The arguments.
+     * @return The options, with default name files filled in.
+     * @throws IllegalArgumentException If the arguments are invalid; the message says why.
+     */
+    static Options parse(String[] args) {
+        Path worldDir = null;
+        LeaderboardWriter writer = LeaderboardWriter.JSON;
+        Path output = null;
+        Path usernames = null;
+        Path usercache = null;
+        Set<String> excluded = Set.of();
+        int limit = Integer.MAX_VALUE;
+        int threads = 0;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                if (worldDir != null) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                worldDir = Path.of(arg);
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--format" -> {
+                    writer = LeaderboardWriter.forName(value);
+                    if (writer == null) {
+                        throw new IllegalArgumentException("Unknown format: " + value);
+                    }
+                }
+                case "--output" -> output = Path.of(value);
+                case "--usernames" -> usernames = Path.of(value);
+                case "--usercache" -> usercache = Path.of(value);
+                case "--exclude" -> excluded = Set.of(Arrays.stream(value.split(","))
+                        .map(String::trim).filter(name -> !name.isEmpty()).distinct().toArray(String[]::new));
+                case "--limit" -> limit = parsePositive(arg, value);
+                case "--threads" -> threads = parsePositive(arg, value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (worldDir == null) {
+            throw new IllegalArgumentException("Missing world directory");
+        }
+
+        // Both files live in the server directory, which holds the world folder
+        Path serverDir = worldDir.toAbsolutePath().normalize().getParent();
+        if (usernames == null && serverDir != null && Files.isRegularFile(serverDir.resolve("playtime_usernames.json"))) {
+            usernames = serverDir.resolve("playtime_usernames.json");
+        }
+        if (usercache == null && serverDir != null && Files.isRegularFile(serverDir.resolve("usercache.json"))) {
+            usercache = serverDir.resolve("usercache.json");
+        }
+        return new Options(worldDir, writer, output, usernames, usercache, excluded, limit, threads);
+    }
+
+    private static int parsePositive(String option, String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(option + " needs a positive number, got: " + value);
+    }
+
+    /**
+     * Builds the leaderboard and writes it.
+     *
+     * @param options The parsed command line.
+     * @throws IOException If the world or a name file cannot be read, or the output cannot be written.
+     */
+    static void run(Options options) throws IOException {
+        Path statsDir = options.worldDir().resolve("stats");
+        if (!Files.isDirectory(statsDir)) {
+            throw new IOException("No stats folder in " + options.worldDir());
+        }
+
+        long start = System.nanoTime();
+        // The server's usercache.json is fresher than StatsCore's own cache, as on the server
+        ProfileCache profiles = ProfileCache.EMPTY;
+        if (options.usercache() != null) {
+            profiles = UsernameFiles.loadUserCache(options.usercache());
+        }
+        if (options.usernames() != null) {
+            profiles = profiles.orElse(UsernameFiles.loadUsernameCache(options.usernames()));
+        }
+        ProfileCache names = profiles;
+
+        // An in-memory index: every file is parsed, and the server's playtime_index.dat is left alone
+        List<PlaytimeEngine.PlayerPlaytime> playtimes = PlaytimeEngine.collectOfflinePlaytimes(
+                StatsFileSource.directory(statsDir), Set.of(), new PlaytimeIndex(null), null, null, options.threads(),
+                entries -> PlaytimeEngine.resolveLocally(entries, names));
+        PlaytimeEngine.LeaderboardPage page = PlaytimeEngine.selectPage(List.of(), playtimes, options.excluded(), 0,
+                options.limit());
+
+        if (options.output() != null) {
+            try (Writer out = Files.newBufferedWriter(options.output(), StandardCharsets.UTF_8)) {
+                options.writer().write(page, out);
+            }
+        } else {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            options.writer().write(page, out);
+        }
+
+        long unnamed = page.entries().stream()
+                .filter(player -> player.username().equals(PlaytimeEngine.fallbackName(player.uuid())))
+                .count();
+        System.err.printf("Ranked %d players from %s in %d ms (%d written, %d without a known name)%n",
+                page.totalPlayers(), statsDir, (System.nanoTime() - start) / 1_000_000, page.entries().size(), unnamed);
+    }
+}
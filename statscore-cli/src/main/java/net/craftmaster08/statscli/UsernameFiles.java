@@ -0,0 +1,107 @@
+package net.craftmaster08.statscli;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import net.craftmaster08.statsengine.ProfileCache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads the name files a server leaves next to its world, without changing them. Unlike the username cache on a
+ * running server, the journal is only replayed and never compacted, so the tool can run against a live server's
+ * files.
+ */
+final class UsernameFiles {
+    private UsernameFiles() {
+    }
+
+    /**
+     * Loads StatsCore's playtime_usernames.json and, if present, its journal.
+     *
+     * @param file The playtime_usernames.json file.
+     * @return The names in the file and its journal.
+     * @throws IOException If the file cannot be read or is not valid JSON.
+     */
+    static ProfileCache loadUsernameCache(Path file) throws IOException {
+        Map<UUID, String> names = new HashMap<>();
+        JsonElement root = parse(file);
+        if (!root.isJsonObject()) {
+            throw new IOException("Expected a JSON object in " + file);
+        }
+        for (Map.Entry<String, JsonElement> entry : root.getAsJsonObject().entrySet()) {
+            put(names, entry.getKey(), entry.getValue().isJsonPrimitive() ? entry.getValue().getAsString() : null);
+        }
+
+        Path journal = file.resolveSibling("playtime_usernames.journal");
+        if (Files.exists(journal)) {
+            try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf('\t');
+                    // A line cut short by a crash is skipped, as on the server
+                    if (separator > 0 && separator < line.length() - 1) {
+                        put(names, line.substring(0, separator), line.substring(separator + 1));
+                    }
+                }
+            }
+        }
+        return names::get;
+    }
+
+    /**
+     * Loads the server's usercache.json, an array of {@code {"name", "uuid", "expiresOn"}} objects. Expired entries
+     * are used too; the name was right when the player was last seen.
+     *
+     * @param file The usercache.json file.
+     * @return The names in the file.
+     * @throws IOException If the file cannot be read or is not valid JSON.
+     */
+    static ProfileCache loadUserCache(Path file) throws IOException {
+        Map<UUID, String> names = new HashMap<>();
+        JsonElement root = parse(file);
+        if (!root.isJsonArray()) {
+            throw new IOException("Expected a JSON array in " + file);
+        }
+        for (JsonElement element : root.getAsJsonArray()) {
+            if (!element.isJsonObject()) {
+                continue;
+            }
+            JsonObject profile = element.getAsJsonObject();
+            JsonElement uuid = profile.get("uuid");
+            JsonElement name = profile.get("name");
+            if (uuid != null && uuid.isJsonPrimitive() && name != null && name.isJsonPrimitive()) {
+                put(names, uuid.getAsString(), name.getAsString());
+            }
+        }
+        return names::get;
+    }
+
+    private static JsonElement parse(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid JSON in " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void put(Map<UUID, String> names, String uuid, String name) {
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        try {
+            names.put(UUID.fromString(uuid), name);
+        } catch (IllegalArgumentException e) {
+            // Not a player entry; ignored like on the server
+        }
+    }
+}
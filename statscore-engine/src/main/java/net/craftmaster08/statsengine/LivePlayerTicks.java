@@ -0,0 +1,25 @@
+package net.craftmaster08.statsengine;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The live play_time of the players currently online, whose stats files lag behind until the next save.
+ */
+public interface LivePlayerTicks {
+    /**
+     * An online player.
+     *
+     * @param uuid          The player's UUID.
+     * @param username      The player's name.
+     * @param playTimeTicks The play_time stat in ticks.
+     */
+    record LivePlayer(UUID uuid, String username, long playTimeTicks) {}
+
+    /**
+     * Snapshots the online players. On a server this must be called on the server thread.
+     *
+     * @return The online players.
+     */
+    List<LivePlayer> onlinePlayers();
+}
@@ -0,0 +1,35 @@
+package net.craftmaster08.statsengine;
+
+import java.util.UUID;
+
+/**
+ * A local source of player names, such as the server's usercache.json. Asked before the username cache and the
+ * Mojang API.
+ */
+public interface ProfileCache {
+    /**
+     * A profile cache that knows no players.
+     */
+    ProfileCache EMPTY = uuid -> null;
+
+    /**
+     * Looks up the name of a player.
+     *
+     * @param uuid The player's UUID.
+     * @return The player's name, or null if it is not known.
+     */
+    String getName(UUID uuid);
+
+    /**
+     * Asks another source for the players this one does not know.
+     *
+     * @param fallback The source to ask next.
+     * @return A profile cache that tries this one first.
+     */
+    default ProfileCache orElse(ProfileCache fallback) {
+        return uuid -> {
+            String name = getName(uuid);
+            return name != null ? name : fallback.getName(uuid);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package net.craftmaster08.statsengine;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Lists the per-player stats files of a world. On a server these are the JSON files in the world's stats directory;
+ * tools and benchmarks can point the engine at any copy of one.
+ */
+public interface StatsFileSource {
+    /**
+     * Opens a listing of the stats files. The files are streamed, so a directory with many players is never held in
+     * memory at once.
+     *
+     * @return The stats files, named {@code <uuid>.json}. The caller closes the stream.
+     * @throws java.nio.file.NoSuchFileException If there are no stats yet.
+     * @throws IOException                       If the files cannot be listed.
+     */
+    DirectoryStream<Path> openStatsFiles() throws IOException;
+
+    /**
+     * Lists the stats files in a directory.
+     *
+     * @param statsDir The stats directory.
+     * @return A source listing the JSON files in the directory.
+     */
+    static StatsFileSource directory(Path statsDir) {
+        return () -> Files.newDirectoryStream(statsDir, "*.json");
+    }
+}
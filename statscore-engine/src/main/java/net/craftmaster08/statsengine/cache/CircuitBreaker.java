@@ -0,0 +1,146 @@
+package net.craftmaster08.statsengine.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Stops calls to an unreliable remote service after a number of consecutive failures.
+ * While open, every call is rejected immediately until the cool-down has passed; then a single trial call is let
+ * through, which closes the breaker on success or reopens it on failure.
+ */
+public class CircuitBreaker {
+    private static final Logger LOGGER = LogManager.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * A point-in-time view of the breaker for operators.
+     *
+     * @param state                   The current state.
+     * @param consecutiveFailures     Failures since the last success.
+     * @param totalFailures           Failures since the server started.
+     * @param totalSuccesses          Successes since the server started.
+     * @param rejectedCalls           Calls rejected while the breaker was open.
+     * @param remainingCooldownMillis Time until the next trial call, or 0 if not open.
+     * @param lastFailure             A description of the last failure, or null if none occurred.
+     */
+    public record Status(State state, int consecutiveFailures, long totalFailures, long totalSuccesses, long rejectedCalls,
+                         long remainingCooldownMillis, String lastFailure) {}
+
+    private final String name;
+    private int failureThreshold;
+    private long cooldownMillis;
+
+    private State state = State.CLOSED;
+    private boolean trialInFlight;
+    private int consecutiveFailures;
+    private long totalFailures;
+    private long totalSuccesses;
+    private long rejectedCalls;
+    private long openedAt;
+    private String lastFailure;
+
+    /**
+     * Creates a closed circuit breaker.
+     *
+     * @param name             The name used in log messages.
+     * @param failureThreshold The number of consecutive failures that opens the breaker.
+     * @param cooldownMillis   How long the breaker stays open before a trial call.
+     */
+    public CircuitBreaker(String name, int failureThreshold, long cooldownMillis) {
+        this.name = name;
+        configure(failureThreshold, cooldownMillis);
+    }
+
+    /**
+     * Changes the thresholds without resetting the current state.
+     *
+     * @param failureThreshold The number of consecutive failures that opens the breaker.
+     * @param cooldownMillis   How long the breaker stays open before a trial call.
+     */
+    public synchronized void configure(int failureThreshold, long cooldownMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldownMillis = Math.max(0, cooldownMillis);
+    }
+
+    /**
+     * Checks whether a call may be made now. A caller that is allowed must report the outcome with
+     * {@link #recordSuccess()} or {@link #recordFailure(String)}.
+     *
+     * @return true if the call may proceed, false if it should use its fallback immediately.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= cooldownMillis) {
+            state = State.HALF_OPEN;
+            LOGGER.info("{} circuit breaker half-open; sending a trial request", name);
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (!trialInFlight) {
+                    trialInFlight = true;
+                    return true;
+                }
+                break;
+            default:
+                break;
+        }
+        rejectedCalls++;
+        return false;
+    }
+
+    /**
+     * Records a successful call.
+     */
+    public synchronized void recordSuccess() {
+        totalSuccesses++;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            LOGGER.info("{} circuit breaker closed after a successful request", name);
+        }
+    }
+
+    /**
+     * Records a failed call, opening the breaker once the threshold is reached.
+     *
+     * @param reason A short description of the failure.
+     */
+    public synchronized void recordFailure(String reason) {
+        totalFailures++;
+        consecutiveFailures++;
+        lastFailure = reason;
+        boolean trialFailed = state == State.HALF_OPEN;
+        trialInFlight = false;
+        if (trialFailed || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            LOGGER.warn("{} circuit breaker opened after {} consecutive failures (last: {}); pausing requests for {}s",
+                    name, consecutiveFailures, reason, cooldownMillis / 1000);
+        }
+    }
+
+    /**
+     * Closes the breaker and clears the consecutive failure count.
+     */
+    public synchronized void reset() {
+        state = State.CLOSED;
+        trialInFlight = false;
+        consecutiveFailures = 0;
+        LOGGER.info("{} circuit breaker reset", name);
+    }
+
+    /**
+     * Gets the current breaker state and counters.
+     *
+     * @return A status snapshot.
+     */
+    public synchronized Status getStatus() {
+        long remaining = state == State.OPEN
+                ? Math.max(0, cooldownMillis - (System.currentTimeMillis() - openedAt))
+                : 0;
+        return new Status(state, consecutiveFailures, totalFailures, totalSuccesses, rejectedCalls, remaining, lastFailure);
+    }
+}
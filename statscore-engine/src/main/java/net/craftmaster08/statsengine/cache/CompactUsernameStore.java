@@ -0,0 +1,334 @@
+package net.craftmaster08.statsengine.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Memory-compact UUID to username map for very large player histories.
+ * <p>
+ * Most entries live in an immutable snapshot: an open-addressed table (linear probing, load factor at most 0.7)
+ * of UUID halves in two {@code long[]} columns, plus an {@code int[]} column of offsets into one shared byte arena
+ * that holds every name as a length byte followed by its UTF-8 bytes. Writes go into a small concurrent overlay
+ * and are folded into a new snapshot by {@link #merge()}, which is published through a volatile field. Readers
+ * never take a lock; {@link #get} only allocates the returned {@code String}, and {@link #appendTo} decodes into the
+ * caller's buffer without allocating at all. The leaderboard formatters do not read this store: they get names as
+ * Strings from the playtime and rank indexes, which name each player once, so {@code get} is only called when a
+ * player is first named.
+ * <p>
+ * Retained heap with compressed oops for names of 8-11 bytes, measured by {@code ./gradlew :jmh:usernameFootprint}:
+ * <ul>
+ *   <li>{@code HashMap<UUID, String>}: 13.1 MB at 100k entries and 128.4 MB at 1M, about 130 B per entry.</li>
+ *   <li>This store after a merge: 7.4 MB at 100k entries and 62.3 MB at 1M. That is 20 B per table slot
+ *       (262,144 and 2,097,152 slots), about 11 B of arena per entry, and the emptied overlay's table, which the
+ *       next burst of writes reuses. None of it is objects per entry, so the garbage collector only sees a few
+ *       arrays.</li>
+ * </ul>
+ */
+public class CompactUsernameStore {
+    private static final double MAX_LOAD_FACTOR = 0.7;
+    private static final int MAX_NAME_BYTES = 255;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private final Map<UUID, String> overlay = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the username for a UUID without locking.
+     *
+     * @param uuid The player's UUID.
+     * @return The username, or null if not stored.
+     */
+    public String get(UUID uuid) {
+        String pending = overlay.get(uuid);
+        if (pending != null) {
+            return pending;
+        }
+        Snapshot current = snapshot;
+        int slot = current.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        return slot < 0 ? null : current.name(slot);
+    }
+
+    /**
+     * Appends the username for a UUID to a caller's buffer without locking or allocating, by decoding the arena
+     * bytes straight into it. For callers that write many names into one text, such as a file export.
+     *
+     * @param uuid The player's UUID.
+     * @param out  The buffer to append to; it only allocates if it has to grow.
+     * @return true if the name was appended, false if it is not stored.
+     */
+    public boolean appendTo(UUID uuid, StringBuilder out) {
+        String pending = overlay.get(uuid);
+        if (pending != null) {
+            out.append(pending);
+            return true;
+        }
+        Snapshot current = snapshot;
+        int slot = current.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (slot < 0) {
+            return false;
+        }
+        current.appendName(slot, out);
+        return true;
+    }
+
+    /**
+     * Stores a username.
+     *
+     * @param uuid     The player's UUID.
+     * @param username The player's username, at most 255 UTF-8 bytes.
+     * @return true if the stored name changed, false if it was already stored.
+     */
+    public synchronized boolean put(UUID uuid, String username) {
+        if (username.getBytes(StandardCharsets.UTF_8).length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Username too long: " + username);
+        }
+        String pending = overlay.get(uuid);
+        if (pending != null) {
+            if (pending.equals(username)) {
+                return false;
+            }
+        } else {
+            Snapshot current = snapshot;
+            int slot = current.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            if (slot >= 0 && current.nameEquals(slot, username)) {
+                return false;
+            }
+        }
+        overlay.put(uuid, username);
+        return true;
+    }
+
+    /**
+     * Gets the number of stored usernames.
+     *
+     * @return The entry count.
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        int size = current.size;
+        for (UUID uuid : overlay.keySet()) {
+            if (current.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) < 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of writes not yet folded into the snapshot.
+     *
+     * @return The overlay size.
+     */
+    public int pendingCount() {
+        return overlay.size();
+    }
+
+    /**
+     * Folds pending writes into a new snapshot. The table is rebuilt outside the write lock, so concurrent
+     * {@link #put} calls only wait for the final publish. Callers should run this off the server thread.
+     */
+    public void merge() {
+        Map<UUID, String> merged;
+        Snapshot base;
+        synchronized (this) {
+            if (overlay.isEmpty()) {
+                return;
+            }
+            merged = new HashMap<>(overlay);
+            base = snapshot;
+        }
+
+        boolean[] replaced = new boolean[base.offsets.length];
+        int replacedCount = 0;
+        for (UUID uuid : merged.keySet()) {
+            int slot = base.find(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+            if (slot >= 0) {
+                replaced[slot] = true;
+                replacedCount++;
+            }
+        }
+        Snapshot.Builder builder = new Snapshot.Builder(base.size + merged.size() - replacedCount, base.arena.length);
+        for (int slot = 0; slot < base.offsets.length; slot++) {
+            if (base.offsets[slot] != 0 && !replaced[slot]) {
+                builder.add(base.msbs[slot], base.lsbs[slot], base.arena, base.offsets[slot] - 1);
+            }
+        }
+        merged.forEach((uuid, name) -> {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            builder.add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), bytes);
+        });
+
+        synchronized (this) {
+            // Writes that arrived during the rebuild stay in the overlay for the next merge
+            snapshot = builder.build();
+            merged.forEach((uuid, name) -> overlay.remove(uuid, name));
+        }
+    }
+
+    /**
+     * Visits every stored username once.
+     *
+     * @param action The action to run for each UUID and username.
+     */
+    public void forEach(BiConsumer<UUID, String> action) {
+        Map<UUID, String> pending = new HashMap<>(overlay);
+        Snapshot current = snapshot;
+        pending.forEach(action);
+        for (int slot = 0; slot < current.offsets.length; slot++) {
+            if (current.offsets[slot] != 0) {
+                UUID uuid = new UUID(current.msbs[slot], current.lsbs[slot]);
+                if (!pending.containsKey(uuid)) {
+                    action.accept(uuid, current.name(slot));
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates the heap used by the snapshot arrays, excluding pending writes.
+     *
+     * @return The approximate footprint in bytes.
+     */
+    public long estimatedFootprintBytes() {
+        Snapshot current = snapshot;
+        return 16L * 4 + current.offsets.length * 20L + current.arena.length;
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new long[1], new long[1], new int[1], new byte[0], 0);
+
+        final long[] msbs;
+        final long[] lsbs;
+        // Arena offset + 1 of each slot's name; 0 marks an empty slot
+        final int[] offsets;
+        final byte[] arena;
+        final int size;
+        final int mask;
+
+        Snapshot(long[] msbs, long[] lsbs, int[] offsets, byte[] arena, int size) {
+            this.msbs = msbs;
+            this.lsbs = lsbs;
+            this.offsets = offsets;
+            this.arena = arena;
+            this.size = size;
+            this.mask = offsets.length - 1;
+        }
+
+        static int hash(long msb, long lsb) {
+            long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        int find(long msb, long lsb) {
+            int slot = hash(msb, lsb) & mask;
+            while (offsets[slot] != 0) {
+                if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        String name(int slot) {
+            int offset = offsets[slot] - 1;
+            return new String(arena, offset + 1, arena[offset] & 0xFF, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Decodes a name's UTF-8 bytes into the buffer. The bytes come from {@link String#getBytes}, so they are
+         * always well-formed.
+         */
+        void appendName(int slot, StringBuilder out) {
+            int offset = offsets[slot] - 1;
+            int i = offset + 1;
+            int end = i + (arena[offset] & 0xFF);
+            while (i < end) {
+                int b = arena[i++];
+                if (b >= 0) {
+                    out.append((char) b);
+                } else if ((b & 0xE0) == 0xC0) {
+                    out.append((char) ((b & 0x1F) << 6 | arena[i++] & 0x3F));
+                } else if ((b & 0xF0) == 0xE0) {
+                    out.append((char) ((b & 0x0F) << 12 | (arena[i++] & 0x3F) << 6 | arena[i++] & 0x3F));
+                } else {
+                    out.appendCodePoint((b & 0x07) << 18 | (arena[i++] & 0x3F) << 12 | (arena[i++] & 0x3F) << 6
+                            | arena[i++] & 0x3F);
+                }
+            }
+        }
+
+        boolean nameEquals(int slot, String name) {
+            int offset = offsets[slot] - 1;
+            int length = arena[offset] & 0xFF;
+            if (length != name.length()) {
+                // Only names with multi-byte characters differ in byte and char length
+                return length > name.length() && name(slot).equals(name);
+            }
+            for (int i = 0; i < length; i++) {
+                byte b = arena[offset + 1 + i];
+                if (b < 0) {
+                    return name(slot).equals(name);
+                }
+                if (b != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        static final class Builder {
+            private final long[] msbs;
+            private final long[] lsbs;
+            private final int[] offsets;
+            private byte[] arena;
+            private int arenaSize;
+            private int size;
+
+            Builder(int expectedEntries, int expectedArenaBytes) {
+                int capacity = Integer.highestOneBit(Math.max(2, (int) Math.ceil(expectedEntries / MAX_LOAD_FACTOR)) - 1) << 1;
+                this.msbs = new long[capacity];
+                this.lsbs = new long[capacity];
+                this.offsets = new int[capacity];
+                this.arena = new byte[Math.max(64, expectedArenaBytes)];
+            }
+
+            void add(long msb, long lsb, byte[] source, int sourceOffset) {
+                append(msb, lsb, source, sourceOffset + 1, source[sourceOffset] & 0xFF);
+            }
+
+            void add(long msb, long lsb, byte[] nameBytes) {
+                append(msb, lsb, nameBytes, 0, nameBytes.length);
+            }
+
+            private void append(long msb, long lsb, byte[] source, int from, int length) {
+                if (arenaSize + length + 1 > arena.length) {
+                    byte[] grown = new byte[Math.max(arena.length * 2, arenaSize + length + 1)];
+                    System.arraycopy(arena, 0, grown, 0, arenaSize);
+                    arena = grown;
+                }
+                int mask = offsets.length - 1;
+                int slot = hash(msb, lsb) & mask;
+                while (offsets[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                msbs[slot] = msb;
+                lsbs[slot] = lsb;
+                offsets[slot] = arenaSize + 1;
+                arena[arenaSize] = (byte) length;
+                System.arraycopy(source, from, arena, arenaSize + 1, length);
+                arenaSize += length + 1;
+                size++;
+            }
+
+            Snapshot build() {
+                byte[] trimmed = new byte[arenaSize];
+                System.arraycopy(arena, 0, trimmed, 0, arenaSize);
+                return new Snapshot(msbs, lsbs, offsets, trimmed, size);
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package net.craftmaster08.statsengine.cache;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves usernames for batches of UUIDs through the Mojang profile API.
+ * All lookups share one HTTP client and run concurrently within a bounded window, with a minimum interval between
+ * request starts to stay clear of the API rate limit. Requests have explicit timeouts, and a circuit breaker stops
+ * all lookups for a cool-down period after repeated failures.
+ */
+public class MojangProfileResolver {
+    private static final Logger LOGGER = LogManager.getLogger(MojangProfileResolver.class);
+    public static final String DEFAULT_PROFILE_ENDPOINT = "https://api.mojang.com/user/profile/";
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+    public static final int DEFAULT_REQUEST_INTERVAL_MS = 100;
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 3000;
+    public static final int DEFAULT_REQUEST_TIMEOUT_MS = 5000;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final int DEFAULT_COOLDOWN_SECONDS = 300;
+
+    private static class Holder {
+        private static final MojangProfileResolver INSTANCE = new MojangProfileResolver();
+    }
+
+    /**
+     * The outcome of a batch lookup.
+     *
+     * @param resolved The usernames that were found.
+     * @param notFound UUIDs the API answered for but does not know. UUIDs that cannot belong to a Mojang account were
+     *                 never queried and, like lookups that failed or were skipped by the circuit breaker, are in
+     *                 neither set.
+     */
+    public record Result(Map<UUID, String> resolved, Set<UUID> notFound) {}
+
+    private record Lookup(String name, boolean notFound) {
+        private static final Lookup FAILED = new Lookup(null, false);
+        private static final Lookup NOT_FOUND = new Lookup(null, true);
+    }
+
+    private final CircuitBreaker circuitBreaker;
+    private volatile HttpClient client;
+    private volatile String profileEndpoint = DEFAULT_PROFILE_ENDPOINT;
+    private volatile int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+    private volatile int requestIntervalMillis = DEFAULT_REQUEST_INTERVAL_MS;
+    private volatile int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MS;
+    private volatile int requestTimeoutMillis = DEFAULT_REQUEST_TIMEOUT_MS;
+    private volatile boolean serverOnlineMode = true;
+    private final AtomicLong skippedOfflineUuids = new AtomicLong();
+
+    private MojangProfileResolver() {
+        this.client = createClient(DEFAULT_CONNECT_TIMEOUT_MS);
+        this.circuitBreaker = new CircuitBreaker("Mojang API", DEFAULT_FAILURE_THRESHOLD,
+                TimeUnit.SECONDS.toMillis(DEFAULT_COOLDOWN_SECONDS));
+    }
+
+    private static HttpClient createClient(int connectTimeoutMillis) {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+    }
+
+    /**
+     * Gets the shared resolver instance.
+     *
+     * @return The resolver.
+     */
+    public static MojangProfileResolver getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Applies the request settings from the StatsCore configuration.
+     *
+     * @param profileEndpoint       The profile endpoint; the UUID without hyphens is appended to it.
+     * @param maxConcurrentRequests The maximum number of requests in flight.
+     * @param requestIntervalMillis The minimum delay between two request starts.
+     * @param connectTimeoutMillis  The TCP connect timeout.
+     * @param requestTimeoutMillis  The timeout for a complete request.
+     */
+    public void configure(String profileEndpoint, int maxConcurrentRequests, int requestIntervalMillis,
+                          int connectTimeoutMillis, int requestTimeoutMillis) {
+        this.profileEndpoint = profileEndpoint;
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        this.requestIntervalMillis = Math.max(0, requestIntervalMillis);
+        this.requestTimeoutMillis = Math.max(1, requestTimeoutMillis);
+        int connectTimeout = Math.max(1, connectTimeoutMillis);
+        if (connectTimeout != this.connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeout;
+            this.client = createClient(connectTimeout);
+        }
+    }
+
+    /**
+     * Applies the circuit breaker settings from the StatsCore configuration.
+     *
+     * @param failureThreshold The number of consecutive failures that pauses all lookups.
+     * @param cooldownSeconds  How long lookups stay paused.
+     */
+    public void configureCircuitBreaker(int failureThreshold, int cooldownSeconds) {
+        circuitBreaker.configure(failureThreshold, TimeUnit.SECONDS.toMillis(cooldownSeconds));
+    }
+
+    /**
+     * Records whether the server authenticates players with Mojang, for status display.
+     *
+     * @param onlineMode The server's online-mode setting.
+     */
+    public void setServerOnlineMode(boolean onlineMode) {
+        this.serverOnlineMode = onlineMode;
+    }
+
+    /**
+     * Gets whether the server authenticates players with Mojang.
+     *
+     * @return The server's online-mode setting.
+     */
+    public boolean isServerOnlineMode() {
+        return serverOnlineMode;
+    }
+
+    /**
+     * Gets the number of lookups skipped because the UUID cannot belong to a Mojang account.
+     *
+     * @return The skipped lookup count since the server started.
+     */
+    public long getSkippedOfflineUuids() {
+        return skippedOfflineUuids.get();
+    }
+
+    /**
+     * Checks whether a UUID can belong to a Mojang account. Mojang only issues random (version 4) UUIDs;
+     * offline-mode servers derive name-based (version 3) UUIDs from the player name, which the API never knows.
+     * Proxies in front of offline-mode servers forward the real version 4 UUIDs, so those are still looked up.
+     *
+     * @param uuid The player's UUID.
+     * @return true if the profile API could know the UUID.
+     */
+    public static boolean canExistAtMojang(UUID uuid) {
+        return uuid.version() == 4 && uuid.variant() == 2;
+    }
+
+    /**
+     * Gets the circuit breaker guarding the Mojang API, for status display and manual resets.
+     *
+     * @return The circuit breaker.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Resolves the usernames of the given UUIDs, blocking until every lookup has finished.
+     * UUIDs that cannot belong to a Mojang account are skipped without a request and left out of the result, so they
+     * are not recorded as misses.
+     *
+     * @param candidates The UUIDs to resolve.
+     * @return The resolved usernames and the UUIDs the API does not know.
+     */
+    public Result resolveAll(Collection<UUID> candidates) {
+        Map<UUID, String> resolved = new HashMap<>();
+        Set<UUID> notFound = new HashSet<>();
+        List<UUID> uuids = new ArrayList<>(candidates.size());
+        for (UUID uuid : candidates) {
+            if (canExistAtMojang(uuid)) {
+                uuids.add(uuid);
+            }
+        }
+        int skipped = candidates.size() - uuids.size();
+        if (skipped > 0) {
+            skippedOfflineUuids.addAndGet(skipped);
+            LOGGER.debug("Skipped Mojang API lookup for {} offline-mode UUIDs", skipped);
+        }
+        if (uuids.isEmpty()) {
+            return new Result(resolved, notFound);
+        }
+
+        String endpoint = profileEndpoint;
+        Semaphore window = new Semaphore(maxConcurrentRequests);
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(requestIntervalMillis);
+        long nextStart = System.nanoTime();
+        Map<UUID, CompletableFuture<Lookup>> pending = new LinkedHashMap<>();
+        long start = System.nanoTime();
+
+        try {
+            for (UUID uuid : uuids) {
+                long wait = nextStart - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                window.acquire();
+                if (!circuitBreaker.tryAcquire()) {
+                    window.release();
+                    LOGGER.warn("Mojang API circuit breaker is open; skipping {} remaining username lookups",
+                            uuids.size() - pending.size());
+                    break;
+                }
+                nextStart = System.nanoTime() + intervalNanos;
+                pending.put(uuid, lookup(endpoint, uuid).whenComplete((lookup, error) -> window.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while resolving usernames; {} of {} lookups were started", pending.size(), uuids.size());
+        }
+
+        pending.forEach((uuid, future) -> {
+            Lookup lookup = future.join();
+            if (lookup.name() != null) {
+                resolved.put(uuid, lookup.name());
+            } else if (lookup.notFound()) {
+                notFound.add(uuid);
+            }
+        });
+        LOGGER.info("Resolved {} of {} usernames via Mojang API in {} ms",
+                resolved.size(), pending.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Result(resolved, notFound);
+    }
+
+    private CompletableFuture<Lookup> lookup(String endpoint, UUID uuid) {
+        String uuidString = uuid.toString();
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder()
+                    .uri(URI.create(endpoint + uuidString.replace("-", "")))
+                    .timeout(Duration.ofMillis(requestTimeoutMillis))
+                    .GET()
+                    .build();
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid Mojang profile endpoint: {}", endpoint, e);
+            circuitBreaker.recordFailure("invalid endpoint");
+            return CompletableFuture.completedFuture(Lookup.FAILED);
+        }
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        circuitBreaker.recordFailure(cause.getClass().getSimpleName());
+                        LOGGER.warn("Error querying Mojang API for UUID: {}: {}", uuidString, cause.toString());
+                        return Lookup.FAILED;
+                    }
+                    int status = response.statusCode();
+                    if (status == 429 || status >= 500) {
+                        circuitBreaker.recordFailure("HTTP " + status);
+                        LOGGER.warn("Mojang API request failed for UUID: {}, status: {}", uuidString, status);
+                        return Lookup.FAILED;
+                    }
+                    // Any other answer means the API is reachable, even if it does not know the UUID
+                    circuitBreaker.recordSuccess();
+                    if (status != 200) {
+                        // 204 and 404 mean the account does not exist (deleted, or never a premium account)
+                        LOGGER.debug("Mojang API does not know UUID: {}, status: {}", uuidString, status);
+                        return Lookup.NOT_FOUND;
+                    }
+                    String name = parseName(uuidString, response.body());
+                    return name != null ? new Lookup(name, false) : Lookup.FAILED;
+                });
+    }
+
+    private static String parseName(String uuidString, String body) {
+        try {
+            JsonObject json = JsonParser.parseString(body).getAsJsonObject();
+            JsonElement name = json.get("name");
+            if (name != null && !name.getAsString().isEmpty()) {
+                return name.getAsString();
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            LOGGER.warn("Invalid Mojang API response for UUID: {}", uuidString);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,201 @@
+package net.craftmaster08.statsengine.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers UUIDs that the Mojang API did not know, persisted next to playtime_usernames.json.
+ * Each further miss doubles the time until the next lookup, from one hour up to a week, so deleted or banned
+ * accounts stop costing a network request on every leaderboard render. Changes are saved on a background thread,
+ * so clearing an entry when a player logs in never waits for the disk.
+ */
+public class UnresolvedUsernameStore {
+    private static final Logger LOGGER = LogManager.getLogger(UnresolvedUsernameStore.class);
+    private static final long BASE_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long MAX_TTL_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private record Miss(int failures, long retryAfter) {}
+
+    private final File cacheFile;
+    private final Map<UUID, Miss> misses;
+    private final Gson gson;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "StatsCore Unresolved Username Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a cache stored in the given directory and loads it.
+     *
+     * @param directory The directory holding playtime_unresolved.json.
+     */
+    public UnresolvedUsernameStore(File directory) {
+        this.cacheFile = new File(directory, "playtime_unresolved.json");
+        this.misses = new HashMap<>();
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        loadCache();
+    }
+
+    /**
+     * Checks whether a UUID is known to be unresolvable and should not be looked up yet.
+     *
+     * @param uuid The player's UUID.
+     * @return true if the last lookup failed and its back-off has not expired.
+     */
+    public synchronized boolean isSuppressed(UUID uuid) {
+        Miss miss = misses.get(uuid);
+        return miss != null && System.currentTimeMillis() < miss.retryAfter();
+    }
+
+    /**
+     * Records failed lookups, doubling each UUID's back-off, and saves the cache in the background.
+     *
+     * @param uuids The UUIDs the API did not know.
+     */
+    public synchronized void recordMisses(Collection<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (UUID uuid : uuids) {
+            Miss previous = misses.get(uuid);
+            int failures = previous != null ? previous.failures() + 1 : 1;
+            long ttl = BASE_TTL_MILLIS << Math.min(failures - 1, 20);
+            misses.put(uuid, new Miss(failures, now + Math.min(ttl, MAX_TTL_MILLIS)));
+        }
+        scheduleSave();
+    }
+
+    /**
+     * Forgets UUIDs whose names became known, and saves the cache in the background if any were recorded.
+     *
+     * @param uuids The UUIDs that now have a name.
+     */
+    public synchronized void clear(Collection<UUID> uuids) {
+        boolean changed = false;
+        for (UUID uuid : uuids) {
+            changed |= misses.remove(uuid) != null;
+        }
+        if (changed) {
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Gets the number of UUIDs currently recorded as unresolvable.
+     *
+     * @return The entry count.
+     */
+    public synchronized int size() {
+        return misses.size();
+    }
+
+    /**
+     * Writes the cache, blocking until done, then stops the writer thread. Called when the server stops; later calls
+     * do nothing.
+     */
+    public void close() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        Future<?> saved = writer.submit(this::saveCache);
+        writer.shutdown();
+        try {
+            saved.get(30, TimeUnit.SECONDS);
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOGGER.warn("Unresolved username writer thread did not stop");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while saving unresolved username cache");
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.error("Error saving unresolved username cache on shutdown", e);
+        }
+    }
+
+    private synchronized void loadCache() {
+        if (!cacheFile.exists()) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            JsonObject json = gson.fromJson(reader, JsonObject.class);
+            if (json != null) {
+                for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+                    try {
+                        UUID uuid = UUID.fromString(entry.getKey());
+                        JsonObject miss = entry.getValue().getAsJsonObject();
+                        misses.put(uuid, new Miss(miss.get("failures").getAsInt(), miss.get("retry_after").getAsLong()));
+                    } catch (IllegalArgumentException | IllegalStateException | NullPointerException e) {
+                        LOGGER.warn("Invalid entry in unresolved username cache: {}", entry.getKey());
+                    }
+                }
+                LOGGER.info("Loaded unresolved username cache with {} entries", misses.size());
+            }
+        } catch (IOException | JsonParseException e) {
+            LOGGER.error("Error loading unresolved username cache", e);
+        }
+    }
+
+    /**
+     * Queues a save unless one is already waiting; that one will see these changes too.
+     */
+    private void scheduleSave() {
+        if (saveScheduled.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::saveCache);
+            } catch (RejectedExecutionException e) {
+                saveScheduled.set(false);
+                LOGGER.warn("Unresolved username cache is closed, {} entries will not be saved", misses.size());
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot through a temporary file and an atomic rename, so a crash mid-write keeps the previous file.
+     * Runs on the writer thread only.
+     */
+    private void saveCache() {
+        saveScheduled.set(false);
+        JsonObject json = new JsonObject();
+        synchronized (this) {
+            misses.forEach((uuid, miss) -> {
+                JsonObject entry = new JsonObject();
+                entry.addProperty("failures", miss.failures());
+                entry.addProperty("retry_after", miss.retryAfter());
+                json.add(uuid.toString(), entry);
+            });
+        }
+        Path target = cacheFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(json, out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.debug("Saved unresolved username cache");
+        } catch (IOException e) {
+            LOGGER.error("Error saving unresolved username cache", e);
+        }
+    }
+}
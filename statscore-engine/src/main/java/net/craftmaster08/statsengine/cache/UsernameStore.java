@@ -0,0 +1,272 @@
+package net.craftmaster08.statsengine.cache;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Manages a cache of player UUIDs to usernames, persisted to a JSON snapshot and an append-only journal.
+ * Names are held in a {@link CompactUsernameStore}, so lookups never lock. Changed names are appended to the journal
+ * by a background thread, so logins never wait for disk I/O; once the journal grows large it is folded into a new
+ * snapshot, which replaces the old one with an atomic rename.
+ */
+public class UsernameStore {
+    private static final Logger LOGGER = LogManager.getLogger(UsernameStore.class);
+    private static final int MIN_COMPACTION_ENTRIES = 1024;
+    private static final int MIN_MERGE_ENTRIES = 256;
+
+    private final File cacheFile;
+    private final Path journalFile;
+    private final CompactUsernameStore usernames;
+    private final Gson gson;
+    private final Queue<Map.Entry<UUID, String>> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "StatsCore Username Journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int journalEntries;
+
+    /**
+     * Creates a cache stored in the given directory and loads it.
+     *
+     * @param directory The directory holding playtime_usernames.json and its journal.
+     */
+    public UsernameStore(File directory) {
+        this.cacheFile = new File(directory, "playtime_usernames.json");
+        this.journalFile = new File(directory, "playtime_usernames.journal").toPath();
+        this.usernames = new CompactUsernameStore();
+        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        loadCache();
+        if (journalEntries > 0) {
+            writer.execute(this::compact);
+        }
+    }
+
+    /**
+     * Gets the username for a given UUID.
+     *
+     * @param uuid The player's UUID.
+     * @return The username, or null if not found.
+     */
+    public String getUsername(UUID uuid) {
+        return usernames.get(uuid);
+    }
+
+    /**
+     * Appends the username for a given UUID to a buffer without allocating.
+     *
+     * @param uuid The player's UUID.
+     * @param out  The buffer to append to.
+     * @return true if the name was appended, false if not found.
+     */
+    public boolean appendUsername(UUID uuid, StringBuilder out) {
+        return usernames.appendTo(uuid, out);
+    }
+
+    /**
+     * Stores a username for a given UUID. Unchanged names are ignored; changes are journaled in the background.
+     *
+     * @param uuid     The player's UUID.
+     * @param username The player's username.
+     */
+    public void storeUsername(UUID uuid, String username) {
+        storeUsernames(Map.of(uuid, username));
+    }
+
+    /**
+     * Stores several usernames at once. Unchanged names are ignored; changes are journaled in the background.
+     * Once the cache is closed, changes are only kept in memory.
+     *
+     * @param names The usernames to store, keyed by UUID.
+     */
+    public void storeUsernames(Map<UUID, String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        boolean changed = false;
+        for (Map.Entry<UUID, String> entry : names.entrySet()) {
+            try {
+                if (usernames.put(entry.getKey(), entry.getValue())) {
+                    pendingWrites.add(Map.entry(entry.getKey(), entry.getValue()));
+                    changed = true;
+                }
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Not caching invalid username for UUID {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (changed && flushScheduled.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+                LOGGER.warn("Username cache is closed, {} changed names will not be saved", pendingWrites.size());
+            }
+        }
+    }
+
+    /**
+     * Writes all pending changes and compacts the journal into the snapshot, blocking until done, then stops the
+     * journal thread. Called when the server stops; later calls do nothing.
+     */
+    public void close() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        Future<?> saved = writer.submit(this::compact);
+        writer.shutdown();
+        try {
+            saved.get(30, TimeUnit.SECONDS);
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOGGER.warn("Username journal thread did not stop");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while saving username cache");
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.error("Error saving username cache on shutdown", e);
+        }
+    }
+
+    private void loadCache() {
+        if (cacheFile.exists()) {
+            // Written as UTF-8 by compact(), whatever the platform charset is
+            try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+                Type type = new TypeToken<Map<String, String>>(){}.getType();
+                Map<String, String> rawMap = gson.fromJson(reader, type);
+                if (rawMap != null) {
+                    for (Map.Entry<String, String> entry : rawMap.entrySet()) {
+                        loadEntry(entry.getKey(), entry.getValue(), "cache");
+                    }
+                }
+            } catch (IOException | JsonParseException e) {
+                LOGGER.error("Error loading username cache", e);
+            }
+        }
+        replayJournal();
+        usernames.merge();
+        LOGGER.info("Loaded username cache with {} entries ({} journaled changes, ~{} KB)",
+                usernames.size(), journalEntries, usernames.estimatedFootprintBytes() / 1024);
+    }
+
+    private void loadEntry(String uuidString, String username, String source) {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(uuidString);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid UUID in {}: {}", source, uuidString);
+            return;
+        }
+        try {
+            usernames.put(uuid, username);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid username in {} for UUID {}: {}", source, uuidString, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the journal on top of the snapshot. A line cut short by a crash is skipped.
+     */
+    private void replayJournal() {
+        if (!Files.exists(journalFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('\t');
+                if (separator <= 0 || separator == line.length() - 1) {
+                    LOGGER.warn("Skipping incomplete line in username journal");
+                    continue;
+                }
+                loadEntry(line.substring(0, separator), line.substring(separator + 1), "username journal");
+                journalEntries++;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error reading username journal", e);
+        }
+    }
+
+    /**
+     * Appends pending changes to the journal, folds a grown overlay into the in-memory snapshot, and compacts the
+     * journal once it holds more entries than half the cache. Runs on the journal thread only.
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        appendPending();
+        int size = usernames.size();
+        if (usernames.pendingCount() > Math.max(MIN_MERGE_ENTRIES, size / 16)) {
+            usernames.merge();
+        }
+        if (journalEntries > Math.max(MIN_COMPACTION_ENTRIES, size / 2)) {
+            compact();
+        }
+    }
+
+    private void appendPending() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        int written = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            Map.Entry<UUID, String> entry;
+            while ((entry = pendingWrites.poll()) != null) {
+                out.write(entry.getKey().toString());
+                out.write('\t');
+                out.write(entry.getValue());
+                out.write('\n');
+                written++;
+            }
+        } catch (IOException e) {
+            LOGGER.error("Error writing username journal", e);
+        }
+        journalEntries += written;
+        LOGGER.debug("Journaled {} username changes", written);
+    }
+
+    /**
+     * Writes a full snapshot through a temporary file and an atomic rename, then empties the journal.
+     * If the server dies in between, replaying the old journal over the new snapshot is harmless.
+     * Runs on the journal thread only.
+     */
+    private void compact() {
+        appendPending();
+        usernames.merge();
+        Map<String, String> rawMap = new HashMap<>();
+        usernames.forEach((uuid, username) -> rawMap.put(uuid.toString(), username));
+
+        Path target = cacheFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                gson.toJson(rawMap, out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(journalFile);
+            LOGGER.info("Saved username cache with {} entries, compacting {} journaled changes", rawMap.size(), journalEntries);
+            journalEntries = 0;
+        } catch (IOException e) {
+            LOGGER.error("Error saving username cache", e);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package net.craftmaster08.statsengine.playtime;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Accounts daily playtime for players from their play_time ticks, resetting at a configurable time and persisting
+ * to a JSON file. Totals are kept in whole ticks, so they stay exact however long a session runs; hours are only
+ * derived for display. The next reset is computed ahead, so checking for it on every update is one comparison, and
+ * the reset itself starts a new day in constant time. The file is written in the background.
+ */
+public class DailyPlaytimeLedger {
+    private static final Logger LOGGER = LogManager.getLogger(DailyPlaytimeLedger.class);
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final double TICKS_PER_HOUR = 20.0 * 3600.0;
+
+    private final Path dataPath;
+    private final ResetScheduler resetScheduler;
+    private final DailyTickTable dailyTicks;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "StatsCore Daily Playtime Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a ledger persisted at the given path and loads it.
+     *
+     * @param dataPath The daily playtime file.
+     */
+    public DailyPlaytimeLedger(Path dataPath) {
+        this.dataPath = dataPath;
+        // Read by the StatsCore worker while the leaderboard is rendered asynchronously
+        this.dailyTicks = new DailyTickTable();
+        this.resetScheduler = new ResetScheduler(this);
+        setDailyResetTime("00:00:00");
+        loadData();
+    }
+
+    /**
+     * Sets the daily reset time for playtime tracking. A reset is due if the new time passed since the last check.
+     *
+     * @param timeStr The reset time in UTC, in format "HH:mm:ss".
+     */
+    public void setDailyResetTime(String timeStr) {
+        resetScheduler.setDailyResetTime(timeStr);
+    }
+
+    /**
+     * Gets the daily playtime for a player.
+     *
+     * @param uuid The player's UUID.
+     * @return The daily playtime in hours.
+     */
+    public double getDailyPlaytime(UUID uuid) {
+        return getDailyTicks(uuid) / TICKS_PER_HOUR;
+    }
+
+    /**
+     * Gets the exact daily playtime for a player.
+     *
+     * @param uuid The player's UUID.
+     * @return The daily playtime in ticks.
+     */
+    public long getDailyTicks(UUID uuid) {
+        return dailyTicks.dailyTicks(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Adds the ticks a player played since the last update to their daily playtime. Allocates nothing once the
+     * player is known.
+     *
+     * @param uuid         The player's UUID.
+     * @param currentTicks The player's current play_time stat.
+     */
+    public void update(UUID uuid, long currentTicks) {
+        // Ticks played after the reset count towards the new day
+        resetScheduler.checkReset();
+        dailyTicks.sample(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), currentTicks);
+    }
+
+    /**
+     * Starts tracking a player who logged in.
+     *
+     * @param uuid         The player's UUID.
+     * @param currentTicks The player's play_time stat at login.
+     */
+    public void login(UUID uuid, long currentTicks) {
+        dailyTicks.track(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), currentTicks);
+    }
+
+    /**
+     * Adds the last ticks of a player who logged out and saves the ledger in the background.
+     *
+     * @param uuid         The player's UUID.
+     * @param currentTicks The player's play_time stat at logout.
+     */
+    public void logout(UUID uuid, long currentTicks) {
+        update(uuid, currentTicks);
+        saveData();
+    }
+
+    private void loadData() {
+        DataSerializer.load(dataPath, dailyTicks, resetScheduler);
+    }
+
+    /**
+     * Writes the ledger on the writer thread. Saves requested while one is pending are folded into it; saves
+     * requested after {@link #close()} are logged and skipped, since the final save has already run.
+     */
+    private void saveData() {
+        if (saveScheduled.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::writeData);
+            } catch (RejectedExecutionException e) {
+                saveScheduled.set(false);
+                LOGGER.warn("Daily playtime ledger is closed, not saving playtime_daily.json");
+            }
+        }
+    }
+
+    private void writeData() {
+        saveScheduled.set(false);
+        DataSerializer.save(dataPath, dailyTicks.copyToday(), resetScheduler.getLastResetCheck());
+    }
+
+    /**
+     * Writes the ledger, blocking until done, then stops the writer thread. Called when the server stops; later calls
+     * do nothing.
+     */
+    public void close() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        Future<?> saved = writer.submit(this::writeData);
+        writer.shutdown();
+        try {
+            saved.get(30, TimeUnit.SECONDS);
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOGGER.warn("Daily playtime writer thread did not stop");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while saving daily playtimes");
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.error("Error saving daily playtimes on shutdown", e);
+        }
+    }
+
+    /**
+     * Formats daily playtime as a human-readable string.
+     *
+     * @param hours The playtime in hours.
+     * @return A formatted string (e.g., "2h 30min 15sec today").
+     */
+    public static String formatDailyPlaytime(double hours) {
+        return formatDailySeconds((long) (hours * 3600.0));
+    }
+
+    /**
+     * Formats daily playtime in whole seconds as a human-readable string.
+     *
+     * @param totalSeconds The playtime in seconds.
+     * @return A formatted string (e.g., "2h 30min 15sec today").
+     */
+    public static String formatDailySeconds(long totalSeconds) {
+        long h = totalSeconds / 3600;
+        long m = totalSeconds % 3600 / 60;
+        long s = totalSeconds % 60;
+        return String.format("%dh %dmin %dsec today", h, m, s);
+    }
+
+    /**
+     * Manages daily reset scheduling for playtime tracking. The next reset is kept as epoch milliseconds, computed
+     * from the last check whenever the reset time changes and after each reset, so the check on every update only
+     * reads the clock and compares.
+     */
+    private static class ResetScheduler {
+        private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+        private final DailyPlaytimeLedger tracker;
+        private LocalTime resetTime = LocalTime.MIDNIGHT;
+        // Written on the server thread, read by the writer thread when saving
+        private volatile long lastResetCheck;
+        private long nextReset;
+
+        ResetScheduler(DailyPlaytimeLedger tracker) {
+            this.tracker = tracker;
+            this.lastResetCheck = System.currentTimeMillis();
+            this.nextReset = nextResetAfter(lastResetCheck);
+        }
+
+        void setDailyResetTime(String timeStr) {
+            try {
+                String[] parts = timeStr.split(" ");
+                if (parts.length != 1) {
+                    throw new DateTimeParseException("Invalid format, expected 'HH:mm:ss'", timeStr, 0);
+                }
+                this.resetTime = LocalTime.parse(parts[0], DateTimeFormatter.ofPattern("HH:mm:ss"));
+                LOGGER.info("Set daily reset time to: {} UTC", timeStr);
+            } catch (DateTimeParseException e) {
+                LOGGER.error("Invalid daily_reset_time format: {}. Defaulting to 00:00:00 UTC", timeStr, e);
+                this.resetTime = LocalTime.MIDNIGHT;
+            }
+            nextReset = nextResetAfter(lastResetCheck);
+        }
+
+        /**
+         * Gets the first reset time after an instant.
+         *
+         * @param millis The instant in epoch milliseconds.
+         * @return The reset in epoch milliseconds.
+         */
+        long nextResetAfter(long millis) {
+            long offset = resetTime.toSecondOfDay() * 1000L;
+            return Math.floorDiv(millis - offset, DAY_MILLIS) * DAY_MILLIS + offset + DAY_MILLIS;
+        }
+
+        void checkReset() {
+            long now = System.currentTimeMillis();
+            if (now >= nextReset) {
+                LOGGER.info("Resetting daily playtime at {}", Instant.ofEpochMilli(now));
+                tracker.dailyTicks.nextDay();
+                nextReset = nextResetAfter(now);
+                // Yesterday's totals are no longer written; the file catches up in the background
+                tracker.saveData();
+            }
+            lastResetCheck = now;
+        }
+
+        void setLastResetCheck(Instant lastResetCheck) {
+            this.lastResetCheck = lastResetCheck.toEpochMilli();
+            nextReset = nextResetAfter(this.lastResetCheck);
+        }
+
+        Instant getLastResetCheck() {
+            return Instant.ofEpochMilli(lastResetCheck);
+        }
+    }
+
+    /**
+     * Handles serialization and deserialization of daily playtime data. Totals are stored in ticks under
+     * {@code daily_ticks}; files from older versions hold hours under {@code daily_playtimes} and are converted on
+     * load, rounded to the nearest tick, and rewritten in ticks on the next save. Totals saved before a reset that
+     * passed while the server was down are dropped on the first update, like any other day's.
+     */
+    private static class DataSerializer {
+        static void load(Path dataPath, DailyTickTable dailyTicks, ResetScheduler resetScheduler) {
+            File dataFile = dataPath.toFile();
+            if (!dataFile.exists()) {
+                save(dataPath, dailyTicks.copyToday(), resetScheduler.getLastResetCheck());
+                return;
+            }
+
+            try (Reader reader = Files.newBufferedReader(dataPath, StandardCharsets.UTF_8)) {
+                JsonObject dataJson = GSON.fromJson(reader, JsonObject.class);
+                if (dataJson == null) {
+                    throw new JsonParseException("Daily playtime file is empty or invalid JSON");
+                }
+
+                if (dataJson.has("daily_ticks")) {
+                    readTotals(dataJson.getAsJsonObject("daily_ticks"), dailyTicks, false);
+                } else if (dataJson.has("daily_playtimes")) {
+                    readTotals(dataJson.getAsJsonObject("daily_playtimes"), dailyTicks, true);
+                    LOGGER.info("Converting playtime_daily.json from hours to ticks");
+                }
+
+                if (dataJson.has("last_reset_check")) {
+                    try {
+                        resetScheduler.setLastResetCheck(Instant.parse(dataJson.get("last_reset_check").getAsString()));
+                    } catch (DateTimeParseException e) {
+                        LOGGER.warn("Invalid last_reset_check format, using current time");
+                        resetScheduler.setLastResetCheck(Instant.now());
+                    }
+                }
+
+                LOGGER.info("Successfully loaded playtime_daily.json ({} players)", dailyTicks.size());
+            } catch (IOException | JsonParseException e) {
+                LOGGER.error("Failed to load playtime_daily.json", e);
+                dailyTicks.clear();
+                resetScheduler.setLastResetCheck(Instant.now());
+            }
+        }
+
+        private static void readTotals(JsonObject totalsJson, DailyTickTable dailyTicks, boolean inHours) {
+            for (Map.Entry<String, JsonElement> entry : totalsJson.entrySet()) {
+                UUID uuid;
+                long ticks;
+                try {
+                    uuid = UUID.fromString(entry.getKey());
+                } catch (IllegalArgumentException e) {
+                    LOGGER.warn("Invalid UUID in playtime data: {}", entry.getKey());
+                    continue;
+                }
+                try {
+                    ticks = inHours
+                            ? Math.round(entry.getValue().getAsDouble() * TICKS_PER_HOUR)
+                            : entry.getValue().getAsLong();
+                } catch (NumberFormatException | IllegalStateException | UnsupportedOperationException e) {
+                    LOGGER.warn("Invalid playtime in playtime data for {}", uuid);
+                    continue;
+                }
+                dailyTicks.putDaily(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), ticks);
+            }
+        }
+
+        /**
+         * Writes the totals to a temporary file and moves it over the old one, so a crash mid-write keeps the
+         * previous file.
+         *
+         * @param dataPath       The daily playtime file.
+         * @param totals         Today's totals from {@link DailyTickTable#copyToday()}.
+         * @param lastResetCheck The last time a reset was checked for.
+         */
+        static void save(Path dataPath, long[] totals, Instant lastResetCheck) {
+            JsonObject dataJson = new JsonObject();
+            JsonObject ticksJson = new JsonObject();
+            for (int i = 0; i < totals.length; i += 3) {
+                ticksJson.addProperty(new UUID(totals[i], totals[i + 1]).toString(), totals[i + 2]);
+            }
+            dataJson.add("daily_ticks", ticksJson);
+            dataJson.addProperty("last_reset_check", lastResetCheck.toString());
+
+            Path tempPath = dataPath.resolveSibling(dataPath.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                GSON.toJson(dataJson, writer);
+            } catch (IOException e) {
+                LOGGER.error("Failed to save playtime_daily.json", e);
+                return;
+            }
+            try {
+                try {
+                    Files.move(tempPath, dataPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempPath, dataPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+                LOGGER.info("Saved playtime_daily.json");
+            } catch (IOException e) {
+                LOGGER.error("Failed to save playtime_daily.json", e);
+            }
+        }
+    }
+}
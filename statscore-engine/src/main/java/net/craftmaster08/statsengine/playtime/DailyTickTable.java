@@ -0,0 +1,215 @@
+package net.craftmaster08.statsengine.playtime;
+
+/**
+ * Daily playtime in ticks per player, keyed by UUID halves.
+ * <p>
+ * An open-addressed table (linear probing, load factor at most 0.7) with the UUID halves, the ticks played today,
+ * the day they were played and the last play_time stat seen in parallel primitive columns. Days are counted by
+ * {@link #nextDay()}: a total stamped with an earlier day reads as zero and is restarted on the next sample, so the
+ * daily reset touches no entries however many players the table holds. Updating a known player writes a few longs
+ * and allocates nothing; the table only allocates when it grows. All access is synchronized: the server thread
+ * writes and the leaderboard reads a page at a time, so the lock is almost never contended.
+ */
+final class DailyTickTable {
+    private static final double MAX_LOAD_FACTOR = 0.7;
+    private static final int INITIAL_CAPACITY = 64;
+    /**
+     * Marks a player whose play_time has not been seen since the server started.
+     */
+    private static final long NO_TICKS = Long.MIN_VALUE;
+
+    private long[] msbs;
+    private long[] lsbs;
+    private long[] dailyTicks;
+    private int[] days;
+    private long[] lastTicks;
+    private boolean[] used;
+    private int mask;
+    private int size;
+    private int day;
+
+    DailyTickTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        dailyTicks = new long[capacity];
+        days = new int[capacity];
+        lastTicks = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int find(long msb, long lsb) {
+        int slot = hash(msb, lsb) & mask;
+        while (used[slot]) {
+            if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int findOrInsert(long msb, long lsb) {
+        int slot = find(msb, lsb);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (size + 1 > (mask + 1) * MAX_LOAD_FACTOR) {
+            grow();
+        }
+        return insert(msb, lsb);
+    }
+
+    /**
+     * Claims a free slot for a UUID that is not in the table.
+     */
+    private int insert(long msb, long lsb) {
+        int slot = hash(msb, lsb) & mask;
+        while (used[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        msbs[slot] = msb;
+        lsbs[slot] = lsb;
+        dailyTicks[slot] = 0;
+        days[slot] = day;
+        lastTicks[slot] = NO_TICKS;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldMsbs = msbs;
+        long[] oldLsbs = lsbs;
+        long[] oldDaily = dailyTicks;
+        int[] oldDays = days;
+        long[] oldLast = lastTicks;
+        boolean[] oldUsed = used;
+        allocate(oldUsed.length * 2);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = insert(oldMsbs[i], oldLsbs[i]);
+                dailyTicks[slot] = oldDaily[i];
+                days[slot] = oldDays[i];
+                lastTicks[slot] = oldLast[i];
+            }
+        }
+    }
+
+    /**
+     * Gets the ticks a player played today.
+     *
+     * @param msb The most significant bits of the player's UUID.
+     * @param lsb The least significant bits of the player's UUID.
+     * @return The ticks, or 0 if the player is not in the table.
+     */
+    synchronized long dailyTicks(long msb, long lsb) {
+        int slot = find(msb, lsb);
+        return slot < 0 || days[slot] != day ? 0 : dailyTicks[slot];
+    }
+
+    /**
+     * Adds the ticks played since the last sample to a player's daily total. The first sample of a player only
+     * records their play_time.
+     *
+     * @param msb          The most significant bits of the player's UUID.
+     * @param lsb          The least significant bits of the player's UUID.
+     * @param currentTicks The player's current play_time stat.
+     */
+    synchronized void sample(long msb, long lsb, long currentTicks) {
+        int slot = findOrInsert(msb, lsb);
+        if (days[slot] != day) {
+            dailyTicks[slot] = 0;
+            days[slot] = day;
+        }
+        long last = lastTicks[slot];
+        if (last != NO_TICKS) {
+            dailyTicks[slot] += currentTicks - last;
+        }
+        lastTicks[slot] = currentTicks;
+    }
+
+    /**
+     * Records a player's play_time without adding to their daily total, as on login.
+     *
+     * @param msb          The most significant bits of the player's UUID.
+     * @param lsb          The least significant bits of the player's UUID.
+     * @param currentTicks The player's current play_time stat.
+     */
+    synchronized void track(long msb, long lsb, long currentTicks) {
+        int slot = findOrInsert(msb, lsb);
+        lastTicks[slot] = currentTicks;
+    }
+
+    /**
+     * Sets a player's daily total, as when loading the saved ledger.
+     *
+     * @param msb        The most significant bits of the player's UUID.
+     * @param lsb        The least significant bits of the player's UUID.
+     * @param dailyTicks The ticks played today.
+     */
+    synchronized void putDaily(long msb, long lsb, long dailyTicks) {
+        int slot = findOrInsert(msb, lsb);
+        this.dailyTicks[slot] = dailyTicks;
+        days[slot] = day;
+    }
+
+    /**
+     * Starts a new day: every daily total reads as zero from now on, while the play_time last seen of online players
+     * is kept. Runs in constant time.
+     */
+    synchronized void nextDay() {
+        day++;
+    }
+
+    /**
+     * Removes all players.
+     */
+    synchronized void clear() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Copies today's totals, so they can be written without holding the lock. Players with no ticks today are left
+     * out.
+     *
+     * @return The UUID halves and ticks of each player, three longs per player.
+     */
+    synchronized long[] copyToday() {
+        int count = 0;
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot] && days[slot] == day && dailyTicks[slot] != 0) {
+                count++;
+            }
+        }
+        long[] entries = new long[count * 3];
+        int i = 0;
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot] && days[slot] == day && dailyTicks[slot] != 0) {
+                entries[i++] = msbs[slot];
+                entries[i++] = lsbs[slot];
+                entries[i++] = dailyTicks[slot];
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the number of players in the table.
+     *
+     * @return The number of players.
+     */
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,60 @@
+package net.craftmaster08.statsengine.playtime;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session-scoped table of the final playtime of players who logged out since the server started.
+ * Lets the offline scan serve recently active players without reading their stats files.
+ */
+public class LoggedOutPlaytimes {
+    /**
+     * The state of a player at logout.
+     *
+     * @param username      The player's name at logout.
+     * @param playTimeTicks The play_time stat in ticks at logout.
+     */
+    public record Snapshot(String username, long playTimeTicks) {}
+
+    private final Map<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Records a player's playtime at logout.
+     *
+     * @param uuid          The player's UUID.
+     * @param username      The player's name.
+     * @param playTimeTicks The play_time stat in ticks.
+     */
+    public void record(UUID uuid, String username, long playTimeTicks) {
+        snapshots.put(uuid, new Snapshot(username, playTimeTicks));
+    }
+
+    /**
+     * Forgets a player, for example when they log back in.
+     *
+     * @param uuid The player's UUID.
+     */
+    public void remove(UUID uuid) {
+        snapshots.remove(uuid);
+    }
+
+    /**
+     * Gets a player's playtime at their last logout during this session.
+     *
+     * @param uuid The player's UUID.
+     * @return The snapshot, or null if the player has not logged out since the server started.
+     */
+    public Snapshot get(UUID uuid) {
+        return snapshots.get(uuid);
+    }
+
+    /**
+     * Gets the number of recorded players.
+     *
+     * @return The snapshot count.
+     */
+    public int size() {
+        return snapshots.size();
+    }
+}
@@ -0,0 +1,245 @@
+package net.craftmaster08.statsengine.playtime;
+
+import net.craftmaster08.statsengine.LivePlayerTicks;
+import net.craftmaster08.statsengine.ProfileCache;
+import net.craftmaster08.statsengine.StatsFileSource;
+import net.craftmaster08.statsengine.cache.MojangProfileResolver;
+import net.craftmaster08.statsengine.cache.UnresolvedUsernameStore;
+import net.craftmaster08.statsengine.cache.UsernameStore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Builds the playtime leaderboard from a world's stats files and the players online: scanning, naming, ranking and
+ * paging. Everything is passed in, so the engine runs the same on a server, in tools and in benchmarks.
+ */
+public final class PlaytimeEngine {
+    private static final Logger LOGGER = LogManager.getLogger(PlaytimeEngine.class);
+
+    /**
+     * A player's total playtime.
+     *
+     * @param username The player's name.
+     * @param playtime The playtime in hours.
+     * @param uuid     The player's UUID.
+     */
+    public record PlayerPlaytime(String username, double playtime, UUID uuid) {}
+
+    /**
+     * One page of the leaderboard.
+     *
+     * @param entries      The players on the page, highest playtime first.
+     * @param totalPlayers The number of ranked players across all pages.
+     * @param firstRank    The rank of the first entry, starting at 1.
+     */
+    public record LeaderboardPage(List<PlayerPlaytime> entries, int totalPlayers, int firstRank) {}
+
+    private static final Comparator<PlayerPlaytime> RANKING = Comparator.comparingDouble(PlayerPlaytime::playtime).reversed()
+            .thenComparing(PlayerPlaytime::username).thenComparing(PlayerPlaytime::uuid);
+
+    private PlaytimeEngine() {
+    }
+
+    /**
+     * Snapshots the playtime of all online players.
+     *
+     * @param livePlayers The online players.
+     * @return A list of player playtime records for online players.
+     */
+    public static List<PlayerPlaytime> onlinePlaytimes(LivePlayerTicks livePlayers) {
+        return livePlayers.onlinePlayers().stream()
+                .map(player -> new PlayerPlaytime(player.username(), player.playTimeTicks() / 20.0 / 3600.0, player.uuid()))
+                .toList();
+    }
+
+    /**
+     * Combines online and offline playtimes into the full leaderboard.
+     *
+     * @param onlinePlaytimes  The online players.
+     * @param offlinePlaytimes The offline players from {@link #collectOfflinePlaytimes}.
+     * @return All players, sorted by playtime in descending order.
+     */
+    public static List<PlayerPlaytime> mergeOverall(List<PlayerPlaytime> onlinePlaytimes, List<PlayerPlaytime> offlinePlaytimes) {
+        return Stream.concat(onlinePlaytimes.stream(), offlinePlaytimes.stream())
+                .sorted(Comparator.comparingDouble(PlayerPlaytime::playtime).reversed())
+                .toList();
+    }
+
+    /**
+     * Selects one page of the leaderboard without sorting every player. The best {@code offset + limit} players are
+     * selected with a bounded heap in O(n log k), and only those are sorted.
+     *
+     * @param onlinePlaytimes   The online players.
+     * @param offlinePlaytimes  The offline players from {@link #collectOfflinePlaytimes}.
+     * @param excludedUsernames Usernames that are not ranked, such as blacklisted players.
+     * @param offset            The number of ranked players to skip.
+     * @param limit             The maximum number of players on the page.
+     * @return The requested page; its entries are empty if the offset is past the last player.
+     */
+    public static LeaderboardPage selectPage(List<PlayerPlaytime> onlinePlaytimes, List<PlayerPlaytime> offlinePlaytimes,
+                                             Set<String> excludedUsernames, int offset, int limit) {
+        int k = (int) Math.min(Integer.MAX_VALUE - 1, (long) offset + limit);
+        // Worst player on top, so it can be evicted when a better one shows up
+        PriorityQueue<PlayerPlaytime> heap = new PriorityQueue<>(Math.min(k, 1024) + 1, RANKING.reversed());
+        int total = 0;
+        for (List<PlayerPlaytime> source : List.of(onlinePlaytimes, offlinePlaytimes)) {
+            for (PlayerPlaytime pt : source) {
+                if (excludedUsernames.contains(pt.username())) {
+                    continue;
+                }
+                total++;
+                if (heap.size() < k) {
+                    heap.add(pt);
+                } else if (RANKING.compare(pt, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(pt);
+                }
+            }
+        }
+
+        List<PlayerPlaytime> top = new ArrayList<>(heap);
+        top.sort(RANKING);
+        List<PlayerPlaytime> entries = offset < top.size() ? List.copyOf(top.subList(offset, top.size())) : List.of();
+        return new LeaderboardPage(entries, total, offset + 1);
+    }
+
+    /**
+     * Scans the stats files and builds the offline players' playtimes.
+     *
+     * @param statsFiles   The world's stats files.
+     * @param onlineUUIDs  Players to leave out because their live stats are used.
+     * @param index        The playtime index; updated with parsed files and resolved names. Pruned and saved only
+     *                     if the whole stats folder could be listed.
+     * @param loggedOut    Playtimes captured at logout, or null.
+     * @param rankIndex    The live rank index to update, or null; marked as seeded once the whole folder was scanned.
+     * @param parallelism  The number of parsing threads, or 0 to pick one based on the available processors.
+     * @param nameResolver Resolves the names of entries that have none yet, for example with {@link #resolveMissing}.
+     * @return The offline players' playtimes, unsorted.
+     */
+    public static List<PlayerPlaytime> collectOfflinePlaytimes(StatsFileSource statsFiles, Set<UUID> onlineUUIDs,
+                                                               PlaytimeIndex index, LoggedOutPlaytimes loggedOut,
+                                                               PlaytimeRankIndex rankIndex, int parallelism,
+                                                               Function<List<PlaytimeIndex.Entry>, Map<UUID, String>> nameResolver) {
+        StatsDirectoryScanner.ScanResult scan = StatsDirectoryScanner.scan(statsFiles, onlineUUIDs, loggedOut, index, parallelism);
+        scan.updated().forEach(index::put);
+
+        Map<UUID, String> resolvedNames = nameResolver.apply(scan.entries());
+        List<PlayerPlaytime> playtimes = new ArrayList<>(scan.entries().size());
+        for (PlaytimeIndex.Entry entry : scan.entries()) {
+            if (entry.playTimeTicks() < 0) {
+                continue;
+            }
+
+            String username = entry.username();
+            if (username == null) {
+                username = resolvedNames.get(entry.uuid());
+                if (username != null) {
+                    index.put(entry.withUsername(username));
+                } else {
+                    username = fallbackName(entry.uuid());
+                }
+            }
+            playtimes.add(new PlayerPlaytime(username, entry.playTimeTicks() / 20.0 / 3600.0, entry.uuid()));
+            if (rankIndex != null) {
+                rankIndex.update(entry.uuid(), username, entry.playTimeTicks());
+            }
+        }
+        // A partial listing would drop every player it missed; keep everything until a scan sees the whole folder
+        if (!scan.complete()) {
+            return playtimes;
+        }
+        if (rankIndex != null) {
+            Set<UUID> known = new HashSet<>(scan.presentUUIDs());
+            known.addAll(onlineUUIDs);
+            rankIndex.retainAll(known);
+            rankIndex.markSeeded();
+        }
+
+        index.retainAll(scan.presentUUIDs());
+        index.saveIfDirty();
+        return playtimes;
+    }
+
+    /**
+     * Resolves the usernames of all entries that have play_time but no name yet. The profile cache and the username
+     * cache are tried first; the remaining UUIDs are looked up in one batch through the Mojang API, and the outcome
+     * is stored in the username caches. UUIDs that recently failed to resolve are only kept out of the API batch
+     * until their back-off expires, so a name that became known locally is used right away.
+     *
+     * @param entries    The scanned entries.
+     * @param profiles   The local profile cache.
+     * @param usernames  The username cache.
+     * @param unresolved The UUIDs that recently failed to resolve.
+     * @return The resolved usernames; UUIDs that no source knows are absent.
+     */
+    public static Map<UUID, String> resolveMissing(List<PlaytimeIndex.Entry> entries, ProfileCache profiles,
+                                                   UsernameStore usernames, UnresolvedUsernameStore unresolved) {
+        Map<UUID, String> resolved = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        int suppressed = 0;
+        for (PlaytimeIndex.Entry entry : entries) {
+            if (entry.playTimeTicks() < 0 || entry.username() != null) {
+                continue;
+            }
+            String username = profiles.getName(entry.uuid());
+            if (username == null) {
+                username = usernames.getUsername(entry.uuid());
+            }
+            if (username != null) {
+                resolved.put(entry.uuid(), username);
+            } else if (unresolved.isSuppressed(entry.uuid())) {
+                suppressed++;
+            } else {
+                missing.add(entry.uuid());
+            }
+        }
+
+        if (suppressed > 0) {
+            LOGGER.debug("Skipped {} UUIDs that recently failed to resolve", suppressed);
+        }
+
+        if (!missing.isEmpty()) {
+            MojangProfileResolver.Result fetched = MojangProfileResolver.getInstance().resolveAll(missing);
+            usernames.storeUsernames(fetched.resolved());
+            unresolved.recordMisses(fetched.notFound());
+            resolved.putAll(fetched.resolved());
+        }
+        unresolved.clear(resolved.keySet());
+        return resolved;
+    }
+
+    /**
+     * Resolves the usernames of all entries that have play_time but no name yet from local sources only, for tools
+     * that must not go online.
+     *
+     * @param entries  The scanned entries.
+     * @param profiles The local name sources.
+     * @return The resolved usernames; UUIDs that no source knows are absent.
+     */
+    public static Map<UUID, String> resolveLocally(List<PlaytimeIndex.Entry> entries, ProfileCache profiles) {
+        Map<UUID, String> resolved = new HashMap<>();
+        for (PlaytimeIndex.Entry entry : entries) {
+            if (entry.playTimeTicks() >= 0 && entry.username() == null) {
+                String username = profiles.getName(entry.uuid());
+                if (username != null) {
+                    resolved.put(entry.uuid(), username);
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Gets the name shown for a player whose username no source knows.
+     *
+     * @param uuid The player's UUID.
+     * @return A placeholder name derived from the UUID.
+     */
+    public static String fallbackName(UUID uuid) {
+        return "Unknown_" + uuid.toString().substring(0, 8);
+    }
+}
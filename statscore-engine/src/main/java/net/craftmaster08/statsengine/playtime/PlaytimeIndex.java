@@ -0,0 +1,184 @@
+package net.craftmaster08.statsengine.playtime;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Persistent index of offline player playtimes, keyed by UUID and validated against stats file metadata.
+ * Stats files are only re-read when their modification time or size differs from the indexed values.
+ */
+public class PlaytimeIndex {
+    private static final Logger LOGGER = LogManager.getLogger(PlaytimeIndex.class);
+    private static final int MAGIC = 0x50544958; // "PTIX"
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * A single indexed stats file.
+     *
+     * @param uuid          The player's UUID.
+     * @param playTimeTicks The play_time stat in ticks, or -1 if the file has no play_time entry.
+     * @param lastModified  The stats file modification time in milliseconds.
+     * @param fileSize      The stats file size in bytes.
+     * @param username      The resolved username, or null if not resolved yet.
+     */
+    public record Entry(UUID uuid, long playTimeTicks, long lastModified, long fileSize, String username) {
+        public boolean matches(long lastModified, long fileSize) {
+            return this.lastModified == lastModified && this.fileSize == fileSize;
+        }
+
+        public Entry withUsername(String username) {
+            return new Entry(uuid, playTimeTicks, lastModified, fileSize, username);
+        }
+    }
+
+    private final Path indexPath;
+    private final Map<UUID, Entry> entries;
+    private boolean dirty;
+
+    /**
+     * Creates an index persisted at the given path.
+     *
+     * @param indexPath The index file path, or null for an in-memory index that is never saved.
+     */
+    public PlaytimeIndex(Path indexPath) {
+        this.indexPath = indexPath;
+        // Read concurrently by the stats scanner threads
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the indexed entry for a player.
+     *
+     * @param uuid The player's UUID.
+     * @return The entry, or null if the player is not indexed.
+     */
+    public Entry get(UUID uuid) {
+        return entries.get(uuid);
+    }
+
+    /**
+     * Adds or replaces an indexed entry.
+     *
+     * @param entry The entry to store.
+     */
+    public synchronized void put(Entry entry) {
+        if (!entry.equals(entries.put(entry.uuid(), entry))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Removes entries whose stats files no longer exist.
+     *
+     * @param present The UUIDs of all stats files currently on disk.
+     */
+    public synchronized void retainAll(Set<UUID> present) {
+        if (entries.keySet().retainAll(present)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Visits every indexed entry.
+     *
+     * @param action The action to run for each entry.
+     */
+    public void forEach(Consumer<Entry> action) {
+        entries.values().forEach(action);
+    }
+
+    /**
+     * Gets the number of indexed players.
+     *
+     * @return The entry count.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads the index from disk, discarding it if the file is missing, outdated or corrupt.
+     */
+    public synchronized void load() {
+        entries.clear();
+        dirty = false;
+        if (indexPath == null || !Files.exists(indexPath)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOGGER.warn("Ignoring {} with unknown format; it will be rebuilt", indexPath.getFileName());
+                dirty = true;
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                long ticks = in.readLong();
+                long lastModified = in.readLong();
+                long fileSize = in.readLong();
+                String username = in.readBoolean() ? in.readUTF() : null;
+                entries.put(uuid, new Entry(uuid, ticks, lastModified, fileSize, username));
+            }
+            LOGGER.info("Loaded playtime index with {} entries", entries.size());
+        } catch (IOException e) {
+            LOGGER.error("Failed to load {}; it will be rebuilt", indexPath.getFileName(), e);
+            entries.clear();
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the index to disk if it changed since the last load or save.
+     */
+    public synchronized void saveIfDirty() {
+        if (!dirty || indexPath == null) {
+            return;
+        }
+
+        Path tempPath = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                out.writeLong(entry.uuid().getMostSignificantBits());
+                out.writeLong(entry.uuid().getLeastSignificantBits());
+                out.writeLong(entry.playTimeTicks());
+                out.writeLong(entry.lastModified());
+                out.writeLong(entry.fileSize());
+                out.writeBoolean(entry.username() != null);
+                if (entry.username() != null) {
+                    out.writeUTF(entry.username());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to write {}", tempPath.getFileName(), e);
+            return;
+        }
+
+        try {
+            try {
+                Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+            LOGGER.debug("Saved playtime index with {} entries", entries.size());
+        } catch (IOException e) {
+            LOGGER.error("Failed to save {}", indexPath.getFileName(), e);
+        }
+    }
+}
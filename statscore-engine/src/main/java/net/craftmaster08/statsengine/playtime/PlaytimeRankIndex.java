@@ -0,0 +1,362 @@
+package net.craftmaster08.statsengine.playtime;
+
+import java.util.*;
+
+/**
+ * Live ranking of all known players by play_time, backed by an order-statistic treap.
+ * Offline playtimes seed it and online players' stats keep it current, so the rank of a player, the players around
+ * them and any slice of the leaderboard can be read in O(log n) without scanning or sorting.
+ * Players whose name is excluded (blacklisted) are kept aside and do not take up a rank.
+ */
+public class PlaytimeRankIndex {
+    /**
+     * A player at a rank.
+     *
+     * @param rank          The 1-based rank.
+     * @param uuid          The player's UUID.
+     * @param username      The player's name, or null if it is not known yet.
+     * @param playTimeTicks The play_time stat in ticks.
+     */
+    public record RankedPlayer(int rank, UUID uuid, String username, long playTimeTicks) {}
+
+    private static final class Node {
+        final UUID uuid;
+        final long ticks;
+        final int priority;
+        String username;
+        String displayName;
+        boolean ranked;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(UUID uuid, String username, long ticks, int priority) {
+            this.uuid = uuid;
+            this.username = username;
+            this.displayName = username != null ? username : PlaytimeEngine.fallbackName(uuid);
+            this.ticks = ticks;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private final Map<String, UUID> uuidsByName = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Set<String> excludedUsernames = Set.of();
+    private Node root;
+    private volatile boolean seeded;
+
+    /**
+     * Adds a player or updates their playtime and name.
+     *
+     * @param uuid          The player's UUID.
+     * @param username      The player's name, or null to keep the known name.
+     * @param playTimeTicks The play_time stat in ticks.
+     */
+    public synchronized void update(UUID uuid, String username, long playTimeTicks) {
+        Node node = nodes.get(uuid);
+        if (node != null && node.ticks == playTimeTicks) {
+            if (username != null && !username.equals(node.username)) {
+                setUsername(node, username);
+            }
+            return;
+        }
+
+        String name = username != null ? username : node != null ? node.username : null;
+        if (node != null) {
+            detach(node);
+        }
+        Node replacement = new Node(uuid, null, playTimeTicks, random.nextInt());
+        nodes.put(uuid, replacement);
+        setUsername(replacement, name);
+    }
+
+    /**
+     * Forgets a player.
+     *
+     * @param uuid The player's UUID.
+     */
+    public synchronized void remove(UUID uuid) {
+        Node node = nodes.get(uuid);
+        if (node != null) {
+            detach(node);
+        }
+    }
+
+    /**
+     * Forgets every player not in the given set, for example when stats files were deleted.
+     *
+     * @param present The UUIDs to keep.
+     */
+    public synchronized void retainAll(Set<UUID> present) {
+        List<Node> gone = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (!present.contains(node.uuid)) {
+                gone.add(node);
+            }
+        }
+        gone.forEach(this::detach);
+    }
+
+    /**
+     * Sets the names that do not take up a rank. Cheap when the set did not change.
+     *
+     * @param excluded The excluded usernames.
+     */
+    public synchronized void setExcludedUsernames(Set<String> excluded) {
+        if (excluded.equals(excludedUsernames)) {
+            return;
+        }
+        excludedUsernames = Set.copyOf(excluded);
+        for (Node node : nodes.values()) {
+            boolean shouldRank = !isExcluded(node.username);
+            if (shouldRank != node.ranked) {
+                if (shouldRank) {
+                    root = insert(root, node);
+                } else {
+                    root = delete(root, node);
+                }
+                node.ranked = shouldRank;
+            }
+        }
+    }
+
+    /**
+     * Gets the rank of a player.
+     *
+     * @param uuid The player's UUID.
+     * @return The 1-based rank, or -1 if the player is unknown or excluded.
+     */
+    public synchronized int getRank(UUID uuid) {
+        Node node = nodes.get(uuid);
+        if (node == null || !node.ranked) {
+            return -1;
+        }
+        int before = 0;
+        Node current = root;
+        while (current != null) {
+            int c = compare(node, current);
+            if (c == 0) {
+                return before + size(current.left) + 1;
+            }
+            if (c < 0) {
+                current = current.left;
+            } else {
+                before += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets consecutive ranks of the leaderboard.
+     *
+     * @param firstRank The 1-based rank of the first player.
+     * @param limit     The maximum number of players.
+     * @return The players from {@code firstRank} on, highest playtime first; empty if the rank is out of range.
+     */
+    public synchronized List<RankedPlayer> getSlice(int firstRank, int limit) {
+        int from = Math.max(0, firstRank - 1);
+        int to = (int) Math.min(size(root), (long) from + limit);
+        List<RankedPlayer> slice = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            Node node = select(i);
+            slice.add(new RankedPlayer(i + 1, node.uuid, node.username, node.ticks));
+        }
+        return slice;
+    }
+
+    /**
+     * Gets the ranks around a player.
+     *
+     * @param uuid      The player's UUID.
+     * @param neighbors The number of players to include above and below.
+     * @return The players around the given one, or an empty list if the player has no rank.
+     */
+    public synchronized List<RankedPlayer> getAround(UUID uuid, int neighbors) {
+        int rank = getRank(uuid);
+        if (rank < 0) {
+            return List.of();
+        }
+        int first = Math.max(1, rank - neighbors);
+        return getSlice(first, rank + neighbors - first + 1);
+    }
+
+    /**
+     * Finds a known player by name, ignoring case.
+     *
+     * @param username The name to look up.
+     * @return The player's UUID, or null if no known player has that name.
+     */
+    public synchronized UUID findByName(String username) {
+        return uuidsByName.get(username.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Marks the index as holding every player with a stats file, after a complete scan of the stats folder.
+     */
+    public void markSeeded() {
+        seeded = true;
+    }
+
+    /**
+     * Checks whether the index holds every player with a stats file. Until then, ranks only count the players seen
+     * so far, such as those online.
+     *
+     * @return true once a complete scan has seeded the index.
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Gets the number of ranked players.
+     *
+     * @return The number of players that take up a rank.
+     */
+    public synchronized int size() {
+        return size(root);
+    }
+
+    private boolean isExcluded(String username) {
+        return username != null && excludedUsernames.contains(username);
+    }
+
+    private void setUsername(Node node, String username) {
+        // The name is part of the order, so take the node out before renaming it
+        if (node.ranked) {
+            root = delete(root, node);
+            node.ranked = false;
+        }
+        if (node.username != null) {
+            uuidsByName.remove(node.username.toLowerCase(Locale.ROOT), node.uuid);
+        }
+        node.username = username;
+        node.displayName = username != null ? username : PlaytimeEngine.fallbackName(node.uuid);
+        if (username != null) {
+            uuidsByName.put(username.toLowerCase(Locale.ROOT), node.uuid);
+        }
+        if (!isExcluded(username)) {
+            root = insert(root, node);
+            node.ranked = true;
+        }
+    }
+
+    private void detach(Node node) {
+        if (node.ranked) {
+            root = delete(root, node);
+            node.ranked = false;
+        }
+        if (node.username != null) {
+            uuidsByName.remove(node.username.toLowerCase(Locale.ROOT), node.uuid);
+        }
+        nodes.remove(node.uuid, node);
+    }
+
+    private Node select(int index) {
+        Node current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index == leftSize) {
+                return current;
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    /**
+     * Orders by playtime descending, then by the name shown on the leaderboard, like {@code PlaytimeEngine.RANKING},
+     * then by UUID so that every player has a distinct position.
+     */
+    private static int compare(Node a, Node b) {
+        int c = Long.compare(b.ticks, a.ticks);
+        if (c == 0) {
+            c = a.displayName.compareTo(b.displayName);
+        }
+        return c != 0 ? c : a.uuid.compareTo(b.uuid);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node resize(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static Node insert(Node tree, Node node) {
+        node.left = null;
+        node.right = null;
+        node.size = 1;
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            Node[] parts = split(tree, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            return resize(node);
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        return resize(tree);
+    }
+
+    private static Node delete(Node tree, Node node) {
+        if (tree == null) {
+            return null;
+        }
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        return resize(tree);
+    }
+
+    /**
+     * Splits a tree into the nodes ordered before the key and the nodes ordered after it.
+     */
+    private static Node[] split(Node tree, Node key) {
+        if (tree == null) {
+            return new Node[2];
+        }
+        if (compare(tree, key) < 0) {
+            Node[] parts = split(tree.right, key);
+            tree.right = parts[0];
+            parts[0] = resize(tree);
+            return parts;
+        }
+        Node[] parts = split(tree.left, key);
+        tree.left = parts[1];
+        parts[1] = resize(tree);
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return resize(left);
+        }
+        right.left = merge(left, right.left);
+        return resize(right);
+    }
+}
@@ -0,0 +1,115 @@
+package net.craftmaster08.statsengine.playtime;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Extracts {@code stats."minecraft:custom"."minecraft:play_time"} from a player stats file.
+ * The file is streamed with a {@link JsonReader} that skips every unrelated subtree and stops as soon as the value
+ * is found, so no JSON tree is built for the block, item and entity statistics that make up most of the file.
+ */
+public class PlaytimeStatExtractor {
+    private static final Logger LOGGER = LogManager.getLogger(PlaytimeStatExtractor.class);
+    private static final String STATS_KEY = "stats";
+    private static final String CUSTOM_KEY = "minecraft:custom";
+    private static final String PLAY_TIME_KEY = "minecraft:play_time";
+
+    /**
+     * Reads the play_time stat from a stats file, falling back to the lenient tree parser on malformed input.
+     *
+     * @param statFile The stats file.
+     * @return The play_time in ticks, or -1 if the file has no play_time entry.
+     * @throws IOException If the file cannot be read.
+     */
+    public static long readPlayTimeTicks(Path statFile) throws IOException {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(statFile, StandardCharsets.UTF_8))) {
+            return extract(reader);
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            LOGGER.debug("Streaming play_time extraction failed for {}, using tree parser: {}", statFile.getFileName(), e.getMessage());
+            return readWithTreeParser(statFile);
+        }
+    }
+
+    /**
+     * Streams a stats document up to the play_time value.
+     *
+     * @param reader A reader positioned before the root object.
+     * @return The play_time in ticks, or -1 if the document has no play_time entry.
+     */
+    public static long extract(JsonReader reader) throws IOException {
+        if (!seekObjectField(reader, STATS_KEY) || !seekObjectField(reader, CUSTOM_KEY)) {
+            return -1;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (PLAY_TIME_KEY.equals(reader.nextName())) {
+                return reader.nextLong();
+            }
+            reader.skipValue();
+        }
+        return -1;
+    }
+
+    /**
+     * Enters the current object (the root on the first call) and advances to the value of the given field.
+     *
+     * @return true if the reader is now positioned at the field's value, false if the object has no such field.
+     */
+    private static boolean seekObjectField(JsonReader reader, String name) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (name.equals(reader.nextName())) {
+                return true;
+            }
+            reader.skipValue();
+        }
+        return false;
+    }
+
+    /**
+     * Reads the play_time stat by building the whole tree. A document of the wrong shape, such as a {@code stats}
+     * field that is not an object, has no play_time entry; {@link JsonObject#getAsJsonObject} would throw a
+     * ClassCastException that the scanner does not expect.
+     */
+    private static long readWithTreeParser(Path statFile) throws IOException {
+        JsonElement root;
+        try (Reader reader = Files.newBufferedReader(statFile, StandardCharsets.UTF_8)) {
+            root = JsonParser.parseReader(reader);
+        }
+
+        JsonObject stats = getObject(root, STATS_KEY);
+        JsonObject custom = getObject(stats, CUSTOM_KEY);
+        if (custom != null) {
+            JsonElement playTimeElement = custom.get(PLAY_TIME_KEY);
+            if (playTimeElement != null && playTimeElement.isJsonPrimitive()) {
+                return playTimeElement.getAsLong();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets a field of an object if both are JSON objects.
+     *
+     * @return The field's value, or null if the parent is not an object or the field is missing or not an object.
+     */
+    private static JsonObject getObject(JsonElement parent, String name) {
+        if (parent == null || !parent.isJsonObject()) {
+            return null;
+        }
+        JsonElement child = parent.getAsJsonObject().get(name);
+        return child != null && child.isJsonObject() ? child.getAsJsonObject() : null;
+    }
+}
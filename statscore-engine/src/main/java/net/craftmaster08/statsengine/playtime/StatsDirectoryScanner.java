@@ -0,0 +1,174 @@
+package net.craftmaster08.statsengine.playtime;
+
+import com.google.gson.JsonParseException;
+import net.craftmaster08.statsengine.StatsFileSource;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Scans the stats files of a world in parallel, streaming file names in batches to a bounded fork-join pool.
+ * Each batch produces its own result, and results are concatenated by the calling thread, so workers never
+ * share mutable state.
+ */
+public class StatsDirectoryScanner {
+    private static final Logger LOGGER = LogManager.getLogger(StatsDirectoryScanner.class);
+    private static final int BATCH_SIZE = 256;
+
+    private static ForkJoinPool pool;
+    private static volatile ScanResult lastScan;
+
+    /**
+     * The outcome of a directory scan.
+     *
+     * @param entries       Entries for every player that was not skipped, taken from the logout table, reused from the
+     *                      index or re-read. Logout table entries carry no file metadata and are not indexed.
+     * @param updated       The subset of entries that were re-read from disk and must be written to the index.
+     * @param presentUUIDs  The UUIDs of all stats files found, including skipped ones.
+     * @param complete      Whether the whole folder was listed. If listing failed part-way, presentUUIDs misses files
+     *                      that still exist and must not be used to prune anything.
+     * @param filesScanned  The number of stats files found.
+     * @param filesParsed   The number of stats files that were parsed.
+     * @param parallelism The pool parallelism used.
+     * @param elapsedNanos  The wall time of the scan.
+     */
+    public record ScanResult(List<PlaytimeIndex.Entry> entries, List<PlaytimeIndex.Entry> updated, Set<UUID> presentUUIDs,
+                             boolean complete, int filesScanned, int filesParsed, int parallelism, long elapsedNanos) {
+        public double filesPerSecond() {
+            return elapsedNanos > 0 ? filesScanned * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+    }
+
+    private record BatchResult(List<PlaytimeIndex.Entry> entries, List<PlaytimeIndex.Entry> updated, List<UUID> presentUUIDs) {}
+
+    /**
+     * Scans the stats files, serving players who logged out this session from memory and reusing index entries
+     * whose file metadata is unchanged.
+     *
+     * @param statsFiles  The world's stats files.
+     * @param skipUUIDs   Players to leave out of the result, such as online players.
+     * @param loggedOut   Playtimes captured at logout, or null to read every file from disk.
+     * @param index       The index used to skip unchanged files. Not modified by the scan.
+     * @param parallelism The number of parsing threads, or 0 to pick one based on the available processors.
+     * @return The scan result.
+     */
+    public static ScanResult scan(StatsFileSource statsFiles, Set<UUID> skipUUIDs, LoggedOutPlaytimes loggedOut, PlaytimeIndex index, int parallelism) {
+        long start = System.nanoTime();
+        ForkJoinPool scanPool = getPool(parallelism);
+        List<ForkJoinTask<BatchResult>> tasks = new ArrayList<>();
+        boolean complete = true;
+
+        try (DirectoryStream<Path> stream = statsFiles.openStatsFiles()) {
+            List<Path> batch = new ArrayList<>(BATCH_SIZE);
+            for (Path path : stream) {
+                batch.add(path);
+                if (batch.size() == BATCH_SIZE) {
+                    List<Path> submitted = batch;
+                    tasks.add(scanPool.submit(() -> scanBatch(submitted, skipUUIDs, loggedOut, index)));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                List<Path> submitted = batch;
+                tasks.add(scanPool.submit(() -> scanBatch(submitted, skipUUIDs, loggedOut, index)));
+            }
+        } catch (NoSuchFileException e) {
+            // No player has joined the world yet
+        } catch (IOException | DirectoryIteratorException e) {
+            LOGGER.error("Error listing stats files, using the {} batches listed so far: {}", tasks.size(), e.getMessage());
+            complete = false;
+        }
+
+        List<PlaytimeIndex.Entry> entries = new ArrayList<>();
+        List<PlaytimeIndex.Entry> updated = new ArrayList<>();
+        Set<UUID> presentUUIDs = new HashSet<>();
+        for (ForkJoinTask<BatchResult> task : tasks) {
+            BatchResult result = task.join();
+            entries.addAll(result.entries());
+            updated.addAll(result.updated());
+            presentUUIDs.addAll(result.presentUUIDs());
+        }
+
+        ScanResult result = new ScanResult(entries, updated, presentUUIDs, complete, presentUUIDs.size(), updated.size(),
+                scanPool.getParallelism(), System.nanoTime() - start);
+        lastScan = result;
+        LOGGER.info("Scanned {} stats files ({} parsed) in {} ms with parallelism {} ({} files/s)",
+                result.filesScanned(), result.filesParsed(), result.elapsedNanos() / 1_000_000,
+                result.parallelism(), String.format("%.0f", result.filesPerSecond()));
+        return result;
+    }
+
+    /**
+     * Gets the result of the most recent scan, for tuning the parallelism.
+     *
+     * @return The last scan result, or null if no scan has run yet.
+     */
+    public static ScanResult getLastScan() {
+        return lastScan;
+    }
+
+    private static BatchResult scanBatch(List<Path> batch, Set<UUID> skipUUIDs, LoggedOutPlaytimes loggedOut, PlaytimeIndex index) {
+        List<PlaytimeIndex.Entry> entries = new ArrayList<>(batch.size());
+        List<PlaytimeIndex.Entry> updated = new ArrayList<>();
+        List<UUID> presentUUIDs = new ArrayList<>(batch.size());
+
+        for (Path path : batch) {
+            String fileName = path.getFileName().toString();
+            try {
+                UUID uuid = UUID.fromString(fileName.substring(0, fileName.length() - ".json".length()));
+                presentUUIDs.add(uuid);
+                if (skipUUIDs.contains(uuid)) {
+                    continue;
+                }
+                LoggedOutPlaytimes.Snapshot snapshot = loggedOut != null ? loggedOut.get(uuid) : null;
+                if (snapshot != null) {
+                    entries.add(new PlaytimeIndex.Entry(uuid, snapshot.playTimeTicks(), -1, -1, snapshot.username()));
+                    continue;
+                }
+
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                long lastModified = attributes.lastModifiedTime().toMillis();
+                long fileSize = attributes.size();
+                PlaytimeIndex.Entry entry = index.get(uuid);
+                if (entry == null || !entry.matches(lastModified, fileSize)) {
+                    entry = new PlaytimeIndex.Entry(uuid, PlaytimeStatExtractor.readPlayTimeTicks(path), lastModified, fileSize, null);
+                    updated.add(entry);
+                }
+                entries.add(entry);
+            } catch (IOException | IllegalArgumentException | JsonParseException | IllegalStateException e) {
+                LOGGER.error("Error reading stat file {}: {}", fileName, e.getMessage());
+            }
+        }
+        return new BatchResult(entries, updated, presentUUIDs);
+    }
+
+    private static synchronized ForkJoinPool getPool(int parallelism) {
+        int effective = parallelism > 0
+                ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        if (pool == null || pool.getParallelism() != effective) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(effective, forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("StatsCore Scanner-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+            LOGGER.info("Created stats scanner pool with parallelism {}", effective);
+        }
+        return pool;
+    }
+}